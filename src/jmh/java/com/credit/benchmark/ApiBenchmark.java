@@ -0,0 +1,69 @@
+package com.credit.benchmark;
+
+import com.credit.model.CreditData;
+import com.credit.model.PredictionResponse;
+import com.credit.service.GPTService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request work in the REST layer outside the model: reading the
+ * {@code CreditData} body, building the explanation and writing the
+ * {@code /api/credit/predict} response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ApiBenchmark {
+    private static final double[] PROBABILITIES = {0.12, 0.33, 0.55};
+
+    private ObjectMapper objectMapper;
+    private GPTService gptService;
+    private CreditData creditData;
+    private byte[] requestBody;
+    private PredictionResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        // Explanations are built locally; the client is never called
+        gptService = new GPTService("benchmark");
+        creditData = BenchmarkFixtures.applicants(1).get(0);
+        requestBody = objectMapper.writeValueAsBytes(creditData);
+
+        // What CreditController#predictEligibility returns
+        response = PredictionResponse.of(PROBABILITIES, 2, 1)
+            .withExplanation(gptService.getCreditExplanation(creditData, PROBABILITIES), null, null);
+    }
+
+    @Benchmark
+    public String getCreditExplanation() {
+        return gptService.getCreditExplanation(creditData, PROBABILITIES);
+    }
+
+    @Benchmark
+    public CreditData readRequest() throws IOException {
+        return objectMapper.readValue(requestBody, CreditData.class);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,103 @@
+package com.credit.benchmark;
+
+import com.credit.model.CreditData;
+import com.credit.model.TrainingData;
+import com.credit.service.ColumnarTrainingFile;
+import com.credit.service.CreditPredictionService;
+import com.credit.service.ModelTrainingService;
+import com.credit.service.PredictionMetrics;
+import com.credit.service.TrainingConfig;
+import com.credit.service.TrainingDataSource;
+import com.credit.service.TrainingMonitor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic inputs shared by the benchmarks. Everything is derived from
+ * {@link #SEED}, so results from different commits measure the same data and weights.
+ */
+final class BenchmarkFixtures {
+    static final long SEED = 42L;
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<TrainingData> sampleData(int size) {
+        return ModelTrainingService.generateSampleData(size, SEED);
+    }
+
+    // Plain request objects, so Jackson and the scoring path see exactly what the API receives
+    static List<CreditData> applicants(int size) {
+        List<CreditData> applicants = new ArrayList<>(size);
+        for (TrainingData sample : sampleData(size)) {
+            CreditData applicant = new CreditData();
+            applicant.setAgeOfCredit(sample.getAgeOfCredit());
+            applicant.setDerogatoryMarks(sample.getDerogatoryMarks());
+            applicant.setFicoScore(sample.getFicoScore());
+            applicant.setMissedPayments(sample.getMissedPayments());
+            applicant.setCreditInquiries(sample.getCreditInquiries());
+            applicant.setTotalAccounts(sample.getTotalAccounts());
+            applicant.setCreditLimit(sample.getCreditLimit());
+            applicant.setIncome(sample.getIncome());
+            applicants.add(applicant);
+        }
+        return applicants;
+    }
+
+    /**
+     * Creates a prediction service backed by a temp model file and trains it on
+     * seeded sample data, so every fork scores with identical weights.
+     */
+    static CreditPredictionService trainedPredictionService(Path workDir) throws IOException {
+        return trainedPredictionService(workDir, true);
+    }
+
+    static CreditPredictionService trainedPredictionService(Path workDir, boolean compiledScoring) throws IOException {
+        CreditPredictionService predictionService = new CreditPredictionService(
+            workDir.resolve("benchmark.model").toString(), PredictionMetrics.noop(), compiledScoring);
+        Path data = writeTrainingFile(workDir.resolve("train.ctd"), sampleData(1000));
+        predictionService.trainModel(ColumnarTrainingFile.open(data), config(100, 1), TrainingMonitor.NONE, true);
+        return predictionService;
+    }
+
+    static TrainingConfig config(int epochs, int threads) {
+        return TrainingConfig.builder()
+            .epochs(epochs)
+            .parallelism(threads)
+            .seed(SEED)
+            .build();
+    }
+
+    static Path writeTrainingFile(Path path, List<TrainingData> rows) throws IOException {
+        double[] features = new double[TrainingDataSource.NUM_FEATURES];
+        try (ColumnarTrainingFile.Writer writer = ColumnarTrainingFile.writer(path)) {
+            for (TrainingData row : rows) {
+                row.copyFeatures(features, 0);
+                writer.append(features, row.getEligibilityClass());
+            }
+            writer.finish();
+        }
+        return path;
+    }
+
+    static Path tempDir() {
+        try {
+            return Files.createTempDirectory("credit-jmh");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        try (var paths = Files.walk(dir)) {
+            for (Path path : paths.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.credit.benchmark;
+
+import com.credit.model.CreditData;
+import com.credit.model.PredictionResult;
+import com.credit.service.CreditPredictionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring cost of the production model: the allocating single-row call, the
+ * allocation-free call that reuses a {@link PredictionResult}, the class-only call
+ * and the columnar batch path, each with compiled scoring on and off. Run with
+ * {@code -prof gc} to confirm the reuse path allocates nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ScoringBenchmark {
+    private static final int APPLICANTS = 1024;
+
+    @Param({"true", "false"})
+    public boolean compiled;
+
+    private Path workDir;
+    private CreditPredictionService predictionService;
+    private CreditData[] applicants;
+    private int next;
+
+    @State(Scope.Thread)
+    public static class ThreadResult {
+        final PredictionResult result = new PredictionResult();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Batch {
+        @Param({"1", "64", "1024"})
+        public int batchSize;
+
+        List<CreditData> applicants;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            applicants = BenchmarkFixtures.applicants(batchSize);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = BenchmarkFixtures.tempDir();
+        predictionService = BenchmarkFixtures.trainedPredictionService(workDir, compiled);
+        applicants = BenchmarkFixtures.applicants(APPLICANTS).toArray(new CreditData[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.deleteRecursively(workDir);
+    }
+
+    private CreditData nextApplicant() {
+        CreditData applicant = applicants[next];
+        next = (next + 1) & (APPLICANTS - 1);
+        return applicant;
+    }
+
+    @Benchmark
+    public double[] predictEligibility() {
+        return predictionService.predictEligibility(nextApplicant());
+    }
+
+    @Benchmark
+    public PredictionResult predictEligibilityReused(ThreadResult state) {
+        return predictionService.predictEligibility(nextApplicant(), state.result);
+    }
+
+    @Benchmark
+    public int predictClass() {
+        return predictionService.predictClass(nextApplicant());
+    }
+
+    @Benchmark
+    public double[][] predictEligibilityBatch(Batch batch) {
+        return predictionService.predictEligibilityBatch(batch.applicants);
+    }
+}
@@ -0,0 +1,109 @@
+package com.credit.benchmark;
+
+import com.credit.model.TrainingData;
+import com.credit.service.ColumnarTrainingFile;
+import com.credit.service.CreditPredictionService;
+import com.credit.service.ModelSnapshot;
+import com.credit.service.ModelTrainingService;
+import com.credit.service.SyntheticDataGenerator;
+import com.credit.service.TrainingConfig;
+import com.credit.service.TrainingMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end training time (statistics pass plus a fixed number of epochs) over
+ * several data set sizes and thread counts, and the cost of generating sample data
+ * (row objects and parallel columnar).
+ * The trained snapshot is not activated, so nothing is written per invocation.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TrainingBenchmark {
+    private static final int EPOCHS = 10;
+
+    @State(Scope.Benchmark)
+    public static class Training {
+        @Param({"1000", "10000", "100000"})
+        public int rows;
+
+        @Param({"1", "2", "4"})
+        public int threads;
+
+        private Path workDir;
+        private CreditPredictionService predictionService;
+        private ColumnarTrainingFile trainingFile;
+        private TrainingConfig config;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            workDir = BenchmarkFixtures.tempDir();
+            predictionService = new CreditPredictionService(workDir.resolve("benchmark.model").toString());
+            Path data = BenchmarkFixtures.writeTrainingFile(workDir.resolve("train.ctd"),
+                BenchmarkFixtures.sampleData(rows));
+            trainingFile = ColumnarTrainingFile.open(data);
+            config = BenchmarkFixtures.config(EPOCHS, threads);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            BenchmarkFixtures.deleteRecursively(workDir);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SampleSize {
+        @Param({"1000", "10000", "100000"})
+        public int rows;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Generator {
+        @Param({"1000000"})
+        public int rows;
+
+        @Param({"1", "2", "4"})
+        public int threads;
+    }
+
+    @Benchmark
+    public ModelSnapshot trainModel(Training training) {
+        return training.predictionService.trainModel(training.trainingFile, training.config,
+            TrainingMonitor.NONE, false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public List<TrainingData> generateSampleData(SampleSize size) {
+        return ModelTrainingService.generateSampleData(size.rows, BenchmarkFixtures.SEED);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public SyntheticDataGenerator.Columns generateColumnarData(Generator generator) {
+        return SyntheticDataGenerator.generate(generator.rows, BenchmarkFixtures.SEED, generator.threads);
+    }
+}
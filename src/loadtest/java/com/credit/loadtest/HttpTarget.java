@@ -0,0 +1,60 @@
+package com.credit.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sends requests to a running service with the JDK HTTP client. Response bodies are
+ * read and discarded.
+ */
+final class HttpTarget implements LoadTarget {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final Workload workload;
+    private final HttpClient client;
+    private final Map<Endpoint, URI> uris = new EnumMap<>(Endpoint.class);
+
+    HttpTarget(String baseUrl, Workload workload, boolean explain) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.workload = workload;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            String query = endpoint == Endpoint.PREDICT && !explain ? "?explain=false" : "";
+            uris.put(endpoint, URI.create(this.baseUrl + endpoint.path + query));
+        }
+    }
+
+    @Override
+    public int send(Endpoint endpoint, int index) throws Exception {
+        byte[] body = switch (endpoint) {
+            case BATCH -> workload.batchBodies[index];
+            case STREAM -> workload.streamBodies[index];
+            default -> workload.applicantBodies[index];
+        };
+        HttpRequest request = HttpRequest.newBuilder(uris.get(endpoint))
+            .timeout(TIMEOUT)
+            .header("Content-Type", endpoint == Endpoint.STREAM ? "application/x-ndjson" : "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Override
+    public String describe() {
+        return baseUrl;
+    }
+
+    @Override
+    public void close() {
+        // The JDK client's connections close when it is garbage collected
+    }
+}
@@ -0,0 +1,58 @@
+package com.credit.loadtest;
+
+import com.credit.CreditEligibilityApplication;
+import com.credit.controller.CreditController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.io.OutputStream;
+
+/**
+ * Starts the application context without a web server and calls {@link CreditController}
+ * directly, writing each response with the application's {@link ObjectMapper}. Measures the
+ * service without Tomcat, the network and admission control. Streaming needs a servlet
+ * request and is only available over HTTP.
+ */
+final class InProcessTarget implements LoadTarget {
+    private final ConfigurableApplicationContext context;
+    private final CreditController controller;
+    private final ObjectMapper objectMapper;
+    private final Workload workload;
+    private final boolean explain;
+
+    InProcessTarget(Workload workload, boolean explain, String[] springArgs) {
+        SpringApplication application = new SpringApplication(CreditEligibilityApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        this.context = application.run(springArgs);
+        this.controller = context.getBean(CreditController.class);
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.workload = workload;
+        this.explain = explain;
+    }
+
+    @Override
+    public int send(Endpoint endpoint, int index) throws Exception {
+        ResponseEntity<?> response = switch (endpoint) {
+            case PREDICT -> controller.predictEligibility(workload.applicants.get(index), null, explain, null);
+            case RECOMMEND -> controller.getRecommendations(workload.applicants.get(index), null, 3);
+            case ASSESS -> controller.assess(workload.applicants.get(index), null, 3, null);
+            case BATCH -> controller.predictEligibilityBatch(workload.batches.get(index));
+            case STREAM -> throw new UnsupportedOperationException("Streaming is only supported over HTTP");
+        };
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response.getBody());
+        return response.getStatusCode().value();
+    }
+
+    @Override
+    public String describe() {
+        return "in-process";
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
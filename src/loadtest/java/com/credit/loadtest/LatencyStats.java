@@ -0,0 +1,65 @@
+package com.credit.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes and latencies of one endpoint. Workers record into lock-free {@link Recorder}s;
+ * the reporter thread moves their interval histograms into the running totals.
+ *
+ * Latency is measured from when a request was due to be sent, so in open-loop runs a
+ * request that had to wait for a free worker is charged for the wait (coordinated
+ * omission correction). Service time is measured from when it was actually sent.
+ */
+final class LatencyStats {
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder latencyRecorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Recorder serviceTimeRecorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Histogram latency = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram serviceTime = new Histogram(SIGNIFICANT_DIGITS);
+    private Histogram latencyInterval; // recycled between intervals
+    private Histogram serviceTimeInterval;
+
+    final LongAdder ok = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder errors = new LongAdder();
+
+    void record(int status, long latencyNanos, long serviceTimeNanos) {
+        if (status >= 200 && status < 300) {
+            ok.increment();
+        } else if (status == 429) {
+            rejected.increment();
+        } else {
+            errors.increment();
+        }
+        latencyRecorder.recordValue(Math.max(1, latencyNanos));
+        serviceTimeRecorder.recordValue(Math.max(1, serviceTimeNanos));
+    }
+
+    /**
+     * Adds what was recorded since the last call to the totals and returns the latency
+     * of just that interval. Reporter thread only.
+     */
+    Histogram collect() {
+        latencyInterval = latencyRecorder.getIntervalHistogram(latencyInterval);
+        serviceTimeInterval = serviceTimeRecorder.getIntervalHistogram(serviceTimeInterval);
+        latency.add(latencyInterval);
+        serviceTime.add(serviceTimeInterval);
+        return latencyInterval;
+    }
+
+    Histogram latency() {
+        return latency;
+    }
+
+    Histogram serviceTime() {
+        return serviceTime;
+    }
+
+    long requests() {
+        return ok.sum() + rejected.sum() + errors.sum();
+    }
+}
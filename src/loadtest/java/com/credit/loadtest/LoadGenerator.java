@@ -0,0 +1,419 @@
+package com.credit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the scoring endpoints with a reproducible mix of requests and reports
+ * throughput, error rate and latency percentiles up to p99.99.
+ *
+ * Without {@code --rate} the test is closed-loop: every thread sends its next request as
+ * soon as the previous one completes, which finds the saturation throughput but hides
+ * queueing. With {@code --rate} it is open-loop: requests are due at fixed intervals
+ * whatever the service does, and latency is counted from the due time, so a stall shows
+ * up in every request it delays rather than in one slow sample.
+ *
+ * <pre>
+ * mvn -Ploadtest verify -Dloadtest.args="--rate=500 --duration=60s --mix=predict=90,batch=10"
+ * </pre>
+ *
+ * Options not listed in {@link #usage()} are passed on to the application when it runs
+ * in-process, e.g. {@code --audit.enabled=false}.
+ */
+public final class LoadGenerator {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    // Open loop: requests still queued this long after the end are abandoned and counted
+    private static final long DRAIN_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Options options;
+    private final LoadTarget target;
+    private final Workload workload;
+    private final Map<LoadTarget.Endpoint, LatencyStats> stats = new EnumMap<>(LoadTarget.Endpoint.class);
+    private final LoadTarget.Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+    private final AtomicLong unsent = new AtomicLong();
+    private final AtomicBoolean abandoned = new AtomicBoolean();
+    private final AtomicLong lastDone = new AtomicLong();
+
+    record Options(String target, String url, Map<LoadTarget.Endpoint, Integer> mix, int batchSize, double rate,
+                   int threads, Duration duration, Duration warmup, int profiles, long seed, boolean explain,
+                   Path output, String[] springArgs) {
+    }
+
+    LoadGenerator(Options options, LoadTarget target, Workload workload) {
+        this.options = options;
+        this.target = target;
+        this.workload = workload;
+        this.endpoints = options.mix().keySet().toArray(new LoadTarget.Endpoint[0]);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += options.mix().get(endpoints[i]);
+            cumulativeWeights[i] = total;
+            stats.put(endpoints[i], new LatencyStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(usage());
+            System.exit(2);
+            return;
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        Workload workload = new Workload(options.profiles(), options.batchSize(), options.seed(), objectMapper);
+        try (LoadTarget target = "in-process".equals(options.target())
+                ? new InProcessTarget(workload, options.explain(), options.springArgs())
+                : new HttpTarget(options.url(), workload, options.explain())) {
+            new LoadGenerator(options, target, workload).run(objectMapper);
+        }
+        // Non-daemon threads of an in-process context or the HTTP client would keep the JVM alive
+        System.exit(0);
+    }
+
+    void run(ObjectMapper objectMapper) throws InterruptedException, IOException {
+        boolean openLoop = options.rate() > 0;
+        System.out.printf(Locale.ROOT, "%s against %s: %s, %d threads, %d s after %d s warm-up, mix %s%n",
+            openLoop ? "Open loop" : "Closed loop", target.describe(),
+            openLoop ? String.format(Locale.ROOT, "%.1f req/s", options.rate()) : "back-to-back",
+            options.threads(), options.duration().toSeconds(), options.warmup().toSeconds(), mix());
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureStart = start + options.warmup().toNanos();
+        long end = measureStart + options.duration().toNanos();
+        AtomicLong nextSlot = new AtomicLong();
+        double periodNanos = openLoop ? 1e9 / options.rate() : 0;
+
+        // Worker t always draws the same sequence of endpoints and applicants for a given seed
+        SplittableRandom seeds = new SplittableRandom(options.seed());
+        List<Thread> workers = new ArrayList<>(options.threads());
+        for (int t = 0; t < options.threads(); t++) {
+            SplittableRandom random = seeds.split();
+            Thread worker = new Thread(() -> work(random, start, measureStart, end, nextSlot, periodNanos),
+                "load-" + t);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        Histogram interval = new Histogram(3);
+        long nextProgress = measureStart + PROGRESS_INTERVAL_NANOS;
+        while (workers.stream().anyMatch(Thread::isAlive)) {
+            Thread.sleep(200);
+            interval.reset();
+            for (LatencyStats endpointStats : stats.values()) {
+                interval.add(endpointStats.collect());
+            }
+            long now = System.nanoTime();
+            if (now >= nextProgress && now < end) {
+                System.out.printf(Locale.ROOT, "  %3d s  %8d requests  p99 %9.3f ms (last 200 ms)%n",
+                    TimeUnit.NANOSECONDS.toSeconds(now - measureStart), totalRequests(),
+                    millis(interval.getValueAtPercentile(99)));
+                nextProgress += PROGRESS_INTERVAL_NANOS;
+            }
+        }
+        for (LatencyStats endpointStats : stats.values()) {
+            endpointStats.collect();
+        }
+        // An overloaded service is still answering after the end, so measure until the last response
+        report(openLoop, Math.max(end, lastDone.get()) - measureStart, objectMapper);
+    }
+
+    private void work(SplittableRandom random, long start, long measureStart, long end, AtomicLong nextSlot,
+                      double periodNanos) {
+        parkUntil(start);
+        while (true) {
+            long due;
+            if (periodNanos > 0) {
+                long slot = nextSlot.getAndIncrement();
+                due = start + Math.round(slot * periodNanos);
+                if (due >= end || abandoned.get()) {
+                    return;
+                }
+                if (System.nanoTime() - end > DRAIN_NANOS) {
+                    if (abandoned.compareAndSet(false, true)) {
+                        unsent.set((long) Math.ceil((end - start) / periodNanos) - slot);
+                    }
+                    return;
+                }
+                parkUntil(due);
+            } else {
+                due = System.nanoTime();
+                if (due >= end) {
+                    return;
+                }
+            }
+            LoadTarget.Endpoint endpoint = pick(random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]));
+            int index = random.nextInt(workload.size(endpoint));
+            long sent = System.nanoTime();
+            int status;
+            try {
+                status = target.send(endpoint, index);
+            } catch (Exception e) {
+                status = -1;
+                firstError.compareAndSet(null, endpoint + ": " + e);
+            }
+            long done = System.nanoTime();
+            if (due >= measureStart) {
+                stats.get(endpoint).record(status, done - due, done - sent);
+                lastDone.accumulateAndGet(done, Math::max);
+            }
+        }
+    }
+
+    private static void parkUntil(long deadline) {
+        long wait;
+        while ((wait = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private Map<String, Integer> mix() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((endpoint, weight) -> mix.put(endpoint.name().toLowerCase(Locale.ROOT), weight));
+        return mix;
+    }
+
+    private LoadTarget.Endpoint pick(int weight) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (weight < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    private long totalRequests() {
+        return stats.values().stream().mapToLong(LatencyStats::requests).sum();
+    }
+
+    private void report(boolean openLoop, long elapsedNanos, ObjectMapper objectMapper) throws IOException {
+        double seconds = elapsedNanos / 1e9;
+        Histogram allLatency = new Histogram(3);
+        Histogram allServiceTime = new Histogram(3);
+        long ok = 0;
+        long rejected = 0;
+        long errors = 0;
+        Map<String, Object> endpointResults = new LinkedHashMap<>();
+
+        System.out.println();
+        System.out.println(openLoop ? "Latency from the scheduled send time (corrected for coordinated omission), ms"
+            : "Latency, ms");
+        printHeader();
+        for (Map.Entry<LoadTarget.Endpoint, LatencyStats> entry : stats.entrySet()) {
+            LatencyStats endpointStats = entry.getValue();
+            String name = entry.getKey().name().toLowerCase(Locale.ROOT);
+            printRow(name, endpointStats.ok.sum(), endpointStats.rejected.sum(), endpointStats.errors.sum(), seconds,
+                endpointStats.latency());
+            endpointResults.put(name, result(endpointStats.ok.sum(), endpointStats.rejected.sum(),
+                endpointStats.errors.sum(), seconds, endpointStats.latency(), endpointStats.serviceTime()));
+            allLatency.add(endpointStats.latency());
+            allServiceTime.add(endpointStats.serviceTime());
+            ok += endpointStats.ok.sum();
+            rejected += endpointStats.rejected.sum();
+            errors += endpointStats.errors.sum();
+        }
+        printRow("all", ok, rejected, errors, seconds, allLatency);
+        if (openLoop) {
+            System.out.println();
+            System.out.println("Service time from the actual send time (uncorrected), ms");
+            printHeader();
+            printRow("all", ok, rejected, errors, seconds, allServiceTime);
+        }
+        if (unsent.get() > 0) {
+            System.out.println();
+            System.out.printf(Locale.ROOT, "%d scheduled requests were still queued %d s after the end and were not"
+                + " sent; the service cannot sustain %.1f req/s%n", unsent.get(),
+                TimeUnit.NANOSECONDS.toSeconds(DRAIN_NANOS), options.rate());
+        }
+        if (firstError.get() != null) {
+            System.out.println();
+            System.out.println("First error: " + firstError.get());
+        }
+
+        if (options.output() != null) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("timestamp", Instant.now().toString());
+            result.put("target", target.describe());
+            result.put("mode", openLoop ? "open" : "closed");
+            result.put("rate", options.rate());
+            result.put("threads", options.threads());
+            result.put("durationSeconds", seconds);
+            result.put("mix", mix());
+            result.put("batchSize", options.batchSize());
+            result.put("unsent", unsent.get());
+            result.put("all", result(ok, rejected, errors, seconds, allLatency, allServiceTime));
+            result.put("endpoints", endpointResults);
+            Path output = options.output().toAbsolutePath();
+            Files.createDirectories(output.getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), result);
+            System.out.println();
+            System.out.println("Results written to " + output);
+        }
+    }
+
+    private static void printHeader() {
+        System.out.printf(Locale.ROOT, "%-10s %9s %9s %8s %8s %9s", "endpoint", "requests", "req/s", "429", "errors",
+            "error %");
+        for (double percentile : PERCENTILES) {
+            System.out.printf(Locale.ROOT, " %9s", "p" + formatPercentile(percentile));
+        }
+        System.out.printf(Locale.ROOT, " %9s%n", "max");
+    }
+
+    private static void printRow(String name, long ok, long rejected, long errors, double seconds,
+                                 Histogram latency) {
+        long requests = ok + rejected + errors;
+        System.out.printf(Locale.ROOT, "%-10s %9d %9.1f %8d %8d %9.3f", name, requests, requests / seconds,
+            rejected, errors, requests > 0 ? 100.0 * (rejected + errors) / requests : 0.0);
+        for (double percentile : PERCENTILES) {
+            System.out.printf(Locale.ROOT, " %9.3f", millis(latency.getValueAtPercentile(percentile)));
+        }
+        System.out.printf(Locale.ROOT, " %9.3f%n", millis(latency.getMaxValue()));
+    }
+
+    private static Map<String, Object> result(long ok, long rejected, long errors, double seconds, Histogram latency,
+                                              Histogram serviceTime) {
+        long requests = ok + rejected + errors;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", requests);
+        result.put("throughput", requests / seconds);
+        result.put("ok", ok);
+        result.put("rejected", rejected);
+        result.put("errors", errors);
+        result.put("errorRate", requests > 0 ? (double) (rejected + errors) / requests : 0.0);
+        result.put("latencyMillis", percentiles(latency));
+        result.put("serviceTimeMillis", percentiles(serviceTime));
+        return result;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + formatPercentile(percentile), millis(histogram.getValueAtPercentile(percentile)));
+        }
+        percentiles.put("max", millis(histogram.getMaxValue()));
+        percentiles.put("mean", histogram.getTotalCount() > 0 ? histogram.getMean() / 1e6 : 0.0);
+        return percentiles;
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? Integer.toString((int) percentile) : Double.toString(percentile);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    static Options parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("target", "http");
+        values.put("url", "http://localhost:8080/api");
+        values.put("mix", "predict=90,recommend=5,batch=5");
+        values.put("batch-size", "100");
+        values.put("rate", "0");
+        values.put("threads", "16");
+        values.put("duration", "60s");
+        values.put("warmup", "10s");
+        values.put("profiles", "10000");
+        values.put("seed", "42");
+        values.put("explain", "true");
+        values.put("output", "target/loadtest-result.json");
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            if (values.containsKey(name)) {
+                values.put(name, arg.substring(equals + 1));
+            } else {
+                springArgs.add(arg);
+            }
+        }
+
+        String target = values.get("target");
+        if (!target.equals("http") && !target.equals("in-process")) {
+            throw new IllegalArgumentException("Unknown target " + target + ", expected http or in-process");
+        }
+        Map<LoadTarget.Endpoint, Integer> mix = new LinkedHashMap<>();
+        for (String entry : values.get("mix").split(",")) {
+            String[] parts = entry.trim().split("=");
+            LoadTarget.Endpoint endpoint;
+            try {
+                endpoint = LoadTarget.Endpoint.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown endpoint in mix: " + parts[0]);
+            }
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Mix weights must be positive: " + entry);
+            }
+            if (endpoint == LoadTarget.Endpoint.STREAM && target.equals("in-process")) {
+                throw new IllegalArgumentException("The stream endpoint can only be driven over HTTP");
+            }
+            mix.put(endpoint, weight);
+        }
+        int batchSize = Integer.parseInt(values.get("batch-size"));
+        int threads = Integer.parseInt(values.get("threads"));
+        int profiles = Integer.parseInt(values.get("profiles"));
+        double rate = Double.parseDouble(values.get("rate"));
+        Duration duration = DurationStyle.detectAndParse(values.get("duration"));
+        Duration warmup = DurationStyle.detectAndParse(values.get("warmup"));
+        if (batchSize < 1 || threads < 1 || profiles < 1 || rate < 0 || duration.isZero() || duration.isNegative()
+            || warmup.isNegative()) {
+            throw new IllegalArgumentException("batch-size, threads, profiles and duration must be positive,"
+                + " rate and warmup not negative");
+        }
+        String output = values.get("output");
+        return new Options(target, values.get("url"), mix, batchSize, rate, threads, duration, warmup, profiles,
+            Long.parseLong(values.get("seed")), Boolean.parseBoolean(values.get("explain")),
+            output.isBlank() ? null : Paths.get(output), springArgs.toArray(new String[0]));
+    }
+
+    static String usage() {
+        return """
+            Options (all --name=value):
+              --target=http|in-process   HTTP against --url, or the controllers in this JVM (default http)
+              --url=URL                  base URL including the context path (default http://localhost:8080/api)
+              --mix=predict=90,batch=10  endpoint weights; predict, recommend, assess, batch, stream
+              --batch-size=N             applicants per batch or stream request (default 100)
+              --rate=R                   open loop at R requests/s; 0 = closed loop (default 0)
+              --threads=N                concurrent requests at most (default 16)
+              --duration=60s             measured time, after --warmup=10s
+              --profiles=N               distinct applicants, generated from --seed=42 (default 10000)
+              --explain=false            skip explanation text on predict
+              --output=FILE              JSON results (default target/loadtest-result.json, empty = none)
+            Other --name=value options are passed to the application with --target=in-process.""";
+    }
+}
@@ -0,0 +1,33 @@
+package com.credit.loadtest;
+
+/**
+ * Where the load goes: the running service over HTTP, or the controllers of an
+ * application context started inside the load generator.
+ */
+interface LoadTarget extends AutoCloseable {
+    enum Endpoint {
+        PREDICT("/credit/predict"),
+        RECOMMEND("/credit/recommend"),
+        ASSESS("/credit/assess"),
+        BATCH("/credit/predict/batch"),
+        STREAM("/credit/predict/stream");
+
+        final String path;
+
+        Endpoint(String path) {
+            this.path = path;
+        }
+
+        boolean isBulk() {
+            return this == BATCH || this == STREAM;
+        }
+    }
+
+    /**
+     * Sends one request for the given workload entry (an applicant, or a batch for bulk
+     * endpoints) and returns the HTTP status of the response.
+     */
+    int send(Endpoint endpoint, int index) throws Exception;
+
+    String describe();
+}
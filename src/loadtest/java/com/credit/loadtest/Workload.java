@@ -0,0 +1,66 @@
+package com.credit.loadtest;
+
+import com.credit.model.CreditData;
+import com.credit.model.TrainingData;
+import com.credit.service.ModelTrainingService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applicant profiles drawn from the sample data distribution of {@link ModelTrainingService},
+ * from a fixed seed so every run sends the same requests. Request bodies are serialized up
+ * front so that encoding them is not part of the measured latency.
+ */
+final class Workload {
+    final List<CreditData> applicants;
+    final List<List<CreditData>> batches;
+    final byte[][] applicantBodies;
+    final byte[][] batchBodies;
+    final byte[][] streamBodies;
+
+    Workload(int size, int batchSize, long seed, ObjectMapper objectMapper) throws JsonProcessingException {
+        applicants = new ArrayList<>(size);
+        for (TrainingData sample : ModelTrainingService.generateSampleData(size, seed)) {
+            CreditData applicant = new CreditData();
+            applicant.setAgeOfCredit(sample.getAgeOfCredit());
+            applicant.setDerogatoryMarks(sample.getDerogatoryMarks());
+            applicant.setFicoScore(sample.getFicoScore());
+            applicant.setMissedPayments(sample.getMissedPayments());
+            applicant.setCreditInquiries(sample.getCreditInquiries());
+            applicant.setTotalAccounts(sample.getTotalAccounts());
+            applicant.setCreditLimit(sample.getCreditLimit());
+            applicant.setIncome(sample.getIncome());
+            applicants.add(applicant);
+        }
+        applicantBodies = new byte[size][];
+        for (int i = 0; i < size; i++) {
+            applicantBodies[i] = objectMapper.writeValueAsBytes(applicants.get(i));
+        }
+
+        int numBatches = Math.max(1, size / batchSize);
+        batches = new ArrayList<>(numBatches);
+        batchBodies = new byte[numBatches][];
+        streamBodies = new byte[numBatches][];
+        for (int b = 0; b < numBatches; b++) {
+            List<CreditData> batch = new ArrayList<>(batchSize);
+            ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+            for (int i = 0; i < batchSize; i++) {
+                int index = (b * batchSize + i) % size;
+                batch.add(applicants.get(index));
+                ndjson.writeBytes(applicantBodies[index]);
+                ndjson.write('\n');
+            }
+            batches.add(batch);
+            batchBodies[b] = objectMapper.writeValueAsBytes(batch);
+            streamBodies[b] = ndjson.toByteArray();
+        }
+    }
+
+    int size(LoadTarget.Endpoint endpoint) {
+        return endpoint.isBulk() ? batches.size() : applicants.size();
+    }
+}
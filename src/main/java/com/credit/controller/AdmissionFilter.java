@@ -0,0 +1,69 @@
+package com.credit.controller;
+
+import com.credit.service.AdmissionControl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Puts {@link AdmissionControl} in front of the scoring endpoints of {@link CreditController}.
+ * Single-applicant requests are interactive; batch and streaming bulk scoring are shed first.
+ * Rejected requests get {@code 429 Too Many Requests} with a {@code Retry-After} header
+ * before the body is even read.
+ */
+@Component
+public class AdmissionFilter extends OncePerRequestFilter {
+    private static final Map<String, AdmissionControl.Priority> PRIORITIES = Map.of(
+        "/api/credit/predict", AdmissionControl.Priority.INTERACTIVE,
+        "/api/credit/recommend", AdmissionControl.Priority.INTERACTIVE,
+        "/api/credit/assess", AdmissionControl.Priority.INTERACTIVE,
+        "/api/credit/predict/batch", AdmissionControl.Priority.BATCH,
+        "/api/credit/predict/stream", AdmissionControl.Priority.BATCH);
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionFilter(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admissionControl.isEnabled() || priority(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdmissionControl.Priority priority = priority(request);
+        AdmissionControl.Permit permit = admissionControl.tryAcquire(priority);
+        if (permit == null) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, admissionControl.getRetryAfter().toSeconds())));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server is at capacity, retry later\"}");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permit.release();
+        }
+    }
+
+    private static AdmissionControl.Priority priority(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        return PRIORITIES.get(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+}
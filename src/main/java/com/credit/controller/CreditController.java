@@ -1,13 +1,35 @@
 package com.credit.controller;
 
+import com.credit.model.AssessmentResponse;
+import com.credit.model.CardSummary;
 import com.credit.model.CreditData;
+import com.credit.model.PredictionResponse;
+import com.credit.model.PredictionResult;
+import com.credit.model.Probabilities;
+import com.credit.model.RecommendationResponse;
+import com.credit.service.AdmissionControl;
+import com.credit.service.AssessmentService;
+import com.credit.service.AuditLog;
+import com.credit.service.CardCatalog;
 import com.credit.service.CreditPredictionService;
+import com.credit.service.ExplanationService;
 import com.credit.service.GPTService;
+import com.credit.service.ModelRegistry;
+import com.credit.service.ModelSnapshot;
+import com.credit.service.PredictionCache;
+import com.credit.service.PredictionMetrics;
+import com.credit.service.StreamingScorer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,49 +38,149 @@ import java.util.Map;
 public class CreditController {
     private final CreditPredictionService predictionService;
     private final GPTService gptService;
+    private final ModelRegistry modelRegistry;
+    private final PredictionCache predictionCache;
+    private final PredictionMetrics metrics;
+    private final CardCatalog cardCatalog;
+    private final ExplanationService explanationService;
+    private final StreamingScorer streamingScorer;
+    private final AssessmentService assessmentService;
+    private final AuditLog auditLog;
+    private final AdmissionControl admissionControl;
 
     @PostMapping("/predict")
-    public ResponseEntity<Map<String, Object>> predictEligibility(@RequestBody CreditData creditData) {
-        double[] probabilities = predictionService.predictEligibility(creditData);
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("probabilities", Map.of(
-            "low", probabilities[0],
-            "medium", probabilities[1],
-            "high", probabilities[2]
-        ));
-        
-        // Get the class with highest probability
-        int maxIndex = 0;
-        for (int i = 1; i < probabilities.length; i++) {
-            if (probabilities[i] > probabilities[maxIndex]) {
-                maxIndex = i;
-            }
+    public ResponseEntity<PredictionResponse> predictEligibility(@RequestBody CreditData creditData,
+                                                                 @RequestParam(required = false) String callbackUrl,
+                                                                 @RequestParam(defaultValue = "true") boolean explain,
+                                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                                 String accept) {
+        PredictionResult result = modelRegistry.predict(creditData, new PredictionResult());
+        double[] probabilities = result.getProbabilities();
+        auditLog.record("predict", creditData, probabilities, result.getPredictedClass(), result.getModelVersion());
+
+        PredictionResponse response = PredictionResponse.of(probabilities, result.getPredictedClass(),
+            result.getModelVersion());
+        // Binary frames have no room for the text, so it is not generated for them either
+        if (!explain || PredictionFrameConverter.isAccepted(accept)) {
+            return ResponseEntity.ok(response);
+        }
+
+        long explanationStart = System.nanoTime();
+        if (explanationService.isEnabled()) {
+            // LLM explanation is generated in the background; clients poll or get a callback
+            ExplanationService.Explanation explanation = explanationService.submit(creditData, result, callbackUrl);
+            response = response.withExplanation(explanation.isDone() ? explanation.getText() : null,
+                explanation.getId(), explanation.getStatus().name());
+        } else {
+            // Get GPT explanation, built once per cached prediction
+            response = response.withExplanation(predictionCache.getExplanation(creditData, result), null, null);
+        }
+        metrics.recordStage(PredictionMetrics.Stage.EXPLANATION, System.nanoTime() - explanationStart);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/explanations/{id}")
+    public ResponseEntity<ExplanationService.Explanation> getExplanation(@PathVariable String id) {
+        return ResponseEntity.of(explanationService.getExplanation(id));
+    }
+
+    @GetMapping("/explanations")
+    public ResponseEntity<Map<String, Object>> getExplanationStats() {
+        return ResponseEntity.ok(explanationService.getStats());
+    }
+
+    @PostMapping("/predict/batch")
+    public ResponseEntity<List<PredictionResponse>> predictEligibilityBatch(@RequestBody List<CreditData> batch) {
+        ModelSnapshot snapshot = predictionService.getModelSnapshot();
+        double[][] probabilities = predictionService.predictEligibilityBatch(batch, snapshot);
+
+        // Explanations are left out of batch responses to keep bulk re-scoring cheap
+        List<PredictionResponse> response = new ArrayList<>(probabilities.length);
+        for (int i = 0; i < probabilities.length; i++) {
+            double[] rowProbabilities = probabilities[i];
+            int predictedClass = PredictionResult.argmax(rowProbabilities);
+            metrics.recordPredictedClass(predictedClass);
+            auditLog.record("batch", batch.get(i), rowProbabilities, predictedClass, snapshot.getVersion());
+            response.add(PredictionResponse.of(rowProbabilities, predictedClass, snapshot.getVersion()));
         }
-        
-        String[] classes = {"Low", "Medium", "High"};
-        response.put("predictedClass", classes[maxIndex]);
-        
-        // Get GPT explanation
-        String explanation = gptService.getCreditExplanation(creditData, probabilities);
-        response.put("explanation", explanation);
-        
+
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/predict/stream", consumes = {"application/x-ndjson", "text/plain"})
+    public void predictEligibilityStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Written directly to the response so results go out as each chunk is scored
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        streamingScorer.score(request.getInputStream(), response.getOutputStream());
+    }
+
     @PostMapping("/recommend")
-    public ResponseEntity<Map<String, Object>> getRecommendations(@RequestBody CreditData creditData) {
-        double[] probabilities = predictionService.predictEligibility(creditData);
+    public ResponseEntity<RecommendationResponse> getRecommendations(@RequestBody CreditData creditData,
+                                                                     @RequestParam(required = false) String type,
+                                                                     @RequestParam(defaultValue = "3") int limit) {
+        PredictionResult result = modelRegistry.predict(creditData, new PredictionResult());
+        double[] probabilities = result.getProbabilities();
+        auditLog.record("recommend", creditData, probabilities, result.getPredictedClass(), result.getModelVersion());
+        long recommendationStart = System.nanoTime();
         String recommendations = gptService.getCardRecommendations(creditData, probabilities);
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("probabilities", Map.of(
-            "low", probabilities[0],
-            "medium", probabilities[1],
-            "high", probabilities[2]
-        ));
-        response.put("recommendations", recommendations);
-        
+        List<CardSummary> cards = cardCatalog.recommend(creditData.getFicoScore(), result.getPredictedClass(),
+            type, limit).stream().map(CardSummary::of).toList();
+        metrics.recordStage(PredictionMetrics.Stage.RECOMMENDATION, System.nanoTime() - recommendationStart);
+
+        return ResponseEntity.ok(new RecommendationResponse(Probabilities.of(probabilities),
+            PredictionResponse.CLASSES[result.getPredictedClass()], recommendations, cards));
+    }
+
+    @PostMapping("/assess")
+    public ResponseEntity<AssessmentResponse> assess(@RequestBody CreditData creditData,
+                                                     @RequestParam(required = false) String type,
+                                                     @RequestParam(defaultValue = "3") int limit,
+                                                     @RequestParam(required = false) String callbackUrl) {
+        AssessmentService.Assessment assessment = assessmentService.assess(creditData, type, limit, callbackUrl);
+        ExplanationService.Explanation asyncExplanation = assessment.asyncExplanation();
+
+        return ResponseEntity.ok(new AssessmentResponse(
+            Probabilities.of(assessment.result().getProbabilities()),
+            PredictionResponse.CLASSES[assessment.result().getPredictedClass()],
+            assessment.explanation(),
+            asyncExplanation != null ? asyncExplanation.getId() : null,
+            asyncExplanation != null ? asyncExplanation.getStatus().name() : null,
+            assessment.recommendations(),
+            assessment.cards() != null ? assessment.cards().stream().map(CardSummary::of).toList() : null,
+            assessment.incomplete()));
+    }
+
+    @GetMapping("/assess")
+    public ResponseEntity<Map<String, Object>> getAssessmentStats() {
+        return ResponseEntity.ok(assessmentService.getStats());
+    }
+
+    @GetMapping("/audit")
+    public ResponseEntity<Map<String, Object>> getAuditStats() {
+        return ResponseEntity.ok(auditLog.getStats());
+    }
+
+    @GetMapping("/admission")
+    public ResponseEntity<Map<String, Object>> getAdmissionStats() {
+        return ResponseEntity.ok(admissionControl.getStats());
+    }
+
+    @GetMapping("/cards")
+    public ResponseEntity<Map<String, Object>> getCards() {
+        Map<String, Object> response = new HashMap<>(cardCatalog.getStats());
+        response.put("catalog", cardCatalog.getCards().stream().map(CardSummary::of).toList());
         return ResponseEntity.ok(response);
     }
-} 
+
+    @PostMapping("/cards/reload")
+    public ResponseEntity<?> reloadCards() {
+        try {
+            cardCatalog.reload();
+            return ResponseEntity.ok(cardCatalog.getStats());
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body("Error reloading card catalog: " + e.getMessage());
+        }
+    }
+}
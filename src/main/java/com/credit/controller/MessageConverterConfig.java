@@ -0,0 +1,23 @@
+package com.credit.controller;
+
+import com.credit.service.PredictionMetrics;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class MessageConverterConfig implements WebMvcConfigurer {
+    private final PredictionMetrics metrics;
+
+    public MessageConverterConfig(PredictionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Last, so that it is only chosen when the client asks for it explicitly
+        converters.add(new PredictionFrameConverter(metrics));
+    }
+}
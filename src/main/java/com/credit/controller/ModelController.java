@@ -1,26 +1,218 @@
 package com.credit.controller;
 
-import com.credit.service.ModelTrainingService;
+import com.credit.model.EvaluationRequest;
+import com.credit.model.TrainingData;
+import com.credit.service.CreditPredictionService;
+import com.credit.service.DriftMonitor;
+import com.credit.service.Evaluation;
+import com.credit.service.EvaluationService;
+import com.credit.service.ModelDistributionService;
+import com.credit.service.ModelComparison;
+import com.credit.service.ModelRegistry;
+import com.credit.service.OnlineLearningService;
+import com.credit.service.PredictionCache;
+import com.credit.service.TrainingJob;
+import com.credit.service.TrainingJobService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
 @RestController
 @RequestMapping("/api/model")
 @RequiredArgsConstructor
 public class ModelController {
-    private final ModelTrainingService modelTrainingService;
+    private final TrainingJobService trainingJobService;
+    private final ModelRegistry modelRegistry;
+    private final CreditPredictionService predictionService;
+    private final PredictionCache predictionCache;
+    private final OnlineLearningService onlineLearningService;
+    private final EvaluationService evaluationService;
+    private final DriftMonitor driftMonitor;
+    private final ModelDistributionService distributionService;
 
     @PostMapping("/train")
-    public ResponseEntity<String> trainModel() {
+    public ResponseEntity<TrainingJob> trainModel(@RequestParam(required = false) String candidate) {
+        return submit(() -> trainingJobService.submitSampleDataTraining(candidate));
+    }
+
+    @PostMapping("/train/file")
+    public ResponseEntity<?> trainModelFromFile(@RequestParam String path,
+                                                @RequestParam(required = false) String candidate) {
+        try {
+            return submit(() -> trainingJobService.submitFileTraining(path, candidate));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<TrainingJob>> getJobs() {
+        return ResponseEntity.ok(trainingJobService.getJobs());
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<TrainingJob> getJob(@PathVariable String id) {
+        return ResponseEntity.of(trainingJobService.getJob(id));
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<TrainingJob> cancelJob(@PathVariable String id) {
+        return ResponseEntity.of(trainingJobService.cancel(id));
+    }
+
+    @PostMapping("/evaluations")
+    public ResponseEntity<?> evaluate(@RequestBody EvaluationRequest request) {
+        try {
+            return ResponseEntity.accepted().body(evaluationService.submit(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    @GetMapping("/evaluations")
+    public ResponseEntity<List<Evaluation>> getEvaluations() {
+        return ResponseEntity.ok(evaluationService.getEvaluations());
+    }
+
+    @GetMapping("/evaluations/{id}")
+    public ResponseEntity<Evaluation> getEvaluation(@PathVariable String id) {
+        return ResponseEntity.of(evaluationService.getEvaluation(id));
+    }
+
+    @DeleteMapping("/evaluations/{id}")
+    public ResponseEntity<Evaluation> cancelEvaluation(@PathVariable String id) {
+        return ResponseEntity.of(evaluationService.cancel(id));
+    }
+
+    @PostMapping("/outcomes")
+    public ResponseEntity<OnlineLearningService.Submission> submitOutcomes(@RequestBody List<TrainingData> outcomes) {
+        if (!onlineLearningService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        OnlineLearningService.Submission submission = onlineLearningService.submit(outcomes);
+        if (submission.accepted() == 0 && submission.dropped() > 0) {
+            // Learner is backed up; the client should retry later
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(submission);
+        }
+        if (submission.accepted() == 0 && submission.invalid() > 0) {
+            return ResponseEntity.badRequest().body(submission);
+        }
+        return ResponseEntity.accepted().body(submission);
+    }
+
+    @GetMapping("/outcomes")
+    public ResponseEntity<Map<String, Object>> getOnlineLearningStats() {
+        return ResponseEntity.ok(onlineLearningService.getStats());
+    }
+
+    @GetMapping("/registry")
+    public ResponseEntity<Map<String, Object>> getRegistry() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("productionVersion", predictionService.getModelSnapshot().getVersion());
+        response.put("models", modelRegistry.getModels());
+        response.put("candidate", modelRegistry.getCandidate());
+        response.put("history", modelRegistry.getHistory());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/registry/{name}")
+    public ResponseEntity<?> registerModel(@PathVariable String name, @RequestParam String path) {
+        try {
+            return ResponseEntity.ok(modelRegistry.register(name, path));
+        } catch (IOException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error registering model: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/registry/{name}/promote")
+    public ResponseEntity<?> promoteModel(@PathVariable String name) {
+        try {
+            return ResponseEntity.ok(modelRegistry.promote(name));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/registry/rollback")
+    public ResponseEntity<?> rollbackModel() {
+        try {
+            return ResponseEntity.ok(modelRegistry.rollback());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @PutMapping("/registry/candidate")
+    public ResponseEntity<?> setCandidate(@RequestParam String name,
+                                          @RequestParam(defaultValue = "0") double trafficPercent,
+                                          @RequestParam(defaultValue = "true") boolean shadow) {
+        try {
+            modelRegistry.setCandidate(name, trafficPercent, shadow);
+            return ResponseEntity.ok(modelRegistry.getCandidate());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/registry/candidate")
+    public ResponseEntity<Void> clearCandidate() {
+        modelRegistry.clearCandidate();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/registry/{name}/comparison")
+    public ResponseEntity<ModelComparison> getComparison(@PathVariable String name) {
+        return ResponseEntity.of(modelRegistry.getComparison(name));
+    }
+
+    @GetMapping("/distribution")
+    public ResponseEntity<Map<String, Object>> getDistribution() {
+        return ResponseEntity.ok(distributionService.getStats());
+    }
+
+    @GetMapping("/drift")
+    public ResponseEntity<DriftMonitor.Report> getDrift() {
+        return ResponseEntity.ok(driftMonitor.getReport());
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(predictionCache.getStats());
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> clearCache() {
+        predictionCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<TrainingJob> submit(Supplier<TrainingJob> submission) {
         try {
-            modelTrainingService.trainModelWithSampleData();
-            return ResponseEntity.ok("Model training completed successfully");
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                .body("Error training model: " + e.getMessage());
+            return ResponseEntity.accepted().body(submission.get());
+        } catch (RejectedExecutionException e) {
+            // Job queue is full; the client should retry later
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package com.credit.controller;
+
+import com.credit.model.PredictionResponse;
+import com.credit.service.PredictionMetrics;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Writes {@link PredictionResponse}s, single or as a batch, in a fixed-layout binary frame
+ * for service-to-service callers that send {@code Accept: application/x-credit-prediction}.
+ *
+ * All values are big-endian. A 16-byte header (format version as a short, record size as
+ * a short, record count as an int, model version as a long) is followed by one 16-byte
+ * record per applicant: the low, medium and high probabilities as 32-bit floats, the
+ * predicted class (0 = Low, 1 = Medium, 2 = High) as a byte and three bytes of padding.
+ * Explanations are never included.
+ *
+ * Registered after the JSON converter by {@link MessageConverterConfig}, so clients that
+ * accept anything still get JSON.
+ */
+public class PredictionFrameConverter extends AbstractGenericHttpMessageConverter<Object> {
+    public static final String MEDIA_TYPE_VALUE = "application/x-credit-prediction";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 16;
+
+    private final PredictionMetrics metrics;
+
+    public PredictionFrameConverter(PredictionMetrics metrics) {
+        super(MEDIA_TYPE);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Whether the client lists the binary frame in its {@code Accept} header, in which case
+     * it will not be shown an explanation and none needs to be generated.
+     */
+    public static boolean isAccepted(String acceptHeader) {
+        return acceptHeader != null && acceptHeader.contains(MEDIA_TYPE_VALUE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == PredictionResponse.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (clazz != PredictionResponse.class && !isResponseList(type)) {
+            return false;
+        }
+        return canWrite(mediaType);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        // The element type of a batch is only known to canWrite(Type, ...), which callers check first
+        return getSupportedMediaTypes();
+    }
+
+    private static boolean isResponseList(Type type) {
+        return type instanceof ParameterizedType parameterized
+            && List.class.isAssignableFrom((Class<?>) parameterized.getRawType())
+            && parameterized.getActualTypeArguments()[0] == PredictionResponse.class;
+    }
+
+    @Override
+    protected Long getContentLength(Object object, MediaType contentType) {
+        return (long) HEADER_SIZE + (long) RECORD_SIZE * responses(object).size();
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        long start = System.nanoTime();
+        try {
+            List<PredictionResponse> responses = responses(object);
+            ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + RECORD_SIZE * responses.size());
+            frame.putShort(FORMAT_VERSION);
+            frame.putShort((short) RECORD_SIZE);
+            frame.putInt(responses.size());
+            frame.putLong(responses.isEmpty() ? 0L : responses.get(0).modelVersion());
+            for (PredictionResponse response : responses) {
+                frame.putFloat((float) response.low());
+                frame.putFloat((float) response.medium());
+                frame.putFloat((float) response.high());
+                frame.putInt(response.predictedClass() << 24);
+            }
+            outputMessage.getBody().write(frame.array());
+        } finally {
+            metrics.recordStage(PredictionMetrics.Stage.SERIALIZATION, System.nanoTime() - start);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<PredictionResponse> responses(Object object) {
+        return object instanceof PredictionResponse single ? List.of(single) : (List<PredictionResponse>) object;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Prediction frames are a response format only", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Prediction frames are a response format only", inputMessage);
+    }
+}
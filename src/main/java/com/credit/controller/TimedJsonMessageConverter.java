@@ -0,0 +1,36 @@
+package com.credit.controller;
+
+import com.credit.service.PredictionMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that records how long response serialization takes. Replaces
+ * Spring Boot's default JSON converter and uses the same {@link ObjectMapper}.
+ */
+@Component
+public class TimedJsonMessageConverter extends MappingJackson2HttpMessageConverter {
+    private final PredictionMetrics metrics;
+
+    public TimedJsonMessageConverter(ObjectMapper objectMapper, PredictionMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            metrics.recordStage(PredictionMetrics.Stage.SERIALIZATION, System.nanoTime() - start);
+        }
+    }
+}
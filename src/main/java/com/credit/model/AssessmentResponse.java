@@ -0,0 +1,19 @@
+package com.credit.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of the full assessment. Parts that did not finish within the deadline are
+ * null and listed in {@code incomplete}, which is left out when everything finished.
+ */
+public record AssessmentResponse(Probabilities probabilities, String predictedClass, String explanation,
+                                 @JsonInclude(Include.NON_NULL) String explanationId,
+                                 @JsonInclude(Include.NON_NULL) String explanationStatus,
+                                 String recommendations,
+                                 @JsonInclude(Include.NON_NULL) List<CardSummary> cards,
+                                 @JsonInclude(Include.NON_EMPTY) Map<String, String> incomplete) {
+}
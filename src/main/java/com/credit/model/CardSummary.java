@@ -0,0 +1,14 @@
+package com.credit.model;
+
+import java.util.List;
+
+/**
+ * The client-facing fields of a {@link CreditCard}.
+ */
+public record CardSummary(String name, String type, Double annualFee, Double apr, String rewards,
+                          Integer creditScoreRequired, List<String> features) {
+    public static CardSummary of(CreditCard card) {
+        return new CardSummary(card.getName(), card.getType(), card.getAnnualFee(), card.getApr(), card.getRewards(),
+            card.getCreditScoreRequired(), card.getFeatures());
+    }
+}
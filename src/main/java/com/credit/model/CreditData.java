@@ -39,4 +39,16 @@ public class CreditData {
     @NotNull
     @Min(0)
     private Double income;
+
+    // Writes the eight model features into target[offset..offset+7] without boxing
+    public void copyFeatures(double[] target, int offset) {
+        target[offset] = ageOfCredit;
+        target[offset + 1] = derogatoryMarks;
+        target[offset + 2] = ficoScore;
+        target[offset + 3] = missedPayments;
+        target[offset + 4] = creditInquiries;
+        target[offset + 5] = totalAccounts;
+        target[offset + 6] = creditLimit;
+        target[offset + 7] = income;
+    }
 } 
@@ -0,0 +1,26 @@
+package com.credit.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Cross-validated hyperparameter search. For a grid search every combination of the
+ * listed values is evaluated; a random search draws {@code trials} configurations between
+ * the smallest and largest listed value (learning rate and lambda on a log scale, batch
+ * size from the list). Omitted lists fall back to the configured training defaults.
+ */
+@Data
+public class EvaluationRequest {
+    private int folds = 5;
+    private String search = "grid"; // grid or random
+    private int trials = 10; // random search only
+    private List<Double> learningRates;
+    private List<Integer> epochs;
+    private List<Double> lambdas;
+    private List<Integer> batchSizes;
+    private Long seed;
+    private String path; // columnar training file under model.training.data-dir; generated sample data when absent
+    private Integer rows; // generated sample rows; model.training.sample-size when absent
+    private boolean promote; // retrain on all rows with the best configuration and serve it
+}
@@ -0,0 +1,80 @@
+package com.credit.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Response of the single and batch prediction endpoints. The explanation fields are
+ * null when no explanation was requested and are then left out of the JSON.
+ *
+ * Serialized by a hand-written serializer with pre-encoded field names, so writing a
+ * response involves no reflection and no per-call map lookups.
+ */
+@JsonSerialize(using = PredictionResponse.Serializer.class)
+public record PredictionResponse(double low, double medium, double high, int predictedClass, long modelVersion,
+                                 String explanation, String explanationId, String explanationStatus) {
+    public static final String[] CLASSES = {"Low", "Medium", "High"};
+
+    public static PredictionResponse of(double[] probabilities, int predictedClass, long modelVersion) {
+        return new PredictionResponse(probabilities[0], probabilities[1], probabilities[2], predictedClass,
+            modelVersion, null, null, null);
+    }
+
+    public PredictionResponse withExplanation(String explanation, String explanationId, String explanationStatus) {
+        return new PredictionResponse(low, medium, high, predictedClass, modelVersion, explanation, explanationId,
+            explanationStatus);
+    }
+
+    static final class Serializer extends StdSerializer<PredictionResponse> {
+        private static final SerializedString PROBABILITIES = new SerializedString("probabilities");
+        private static final SerializedString LOW = new SerializedString("low");
+        private static final SerializedString MEDIUM = new SerializedString("medium");
+        private static final SerializedString HIGH = new SerializedString("high");
+        private static final SerializedString PREDICTED_CLASS = new SerializedString("predictedClass");
+        private static final SerializedString EXPLANATION = new SerializedString("explanation");
+        private static final SerializedString EXPLANATION_ID = new SerializedString("explanationId");
+        private static final SerializedString EXPLANATION_STATUS = new SerializedString("explanationStatus");
+        private static final SerializedString[] CLASS_VALUES = {
+            new SerializedString(CLASSES[0]), new SerializedString(CLASSES[1]), new SerializedString(CLASSES[2])
+        };
+
+        Serializer() {
+            super(PredictionResponse.class);
+        }
+
+        @Override
+        public void serialize(PredictionResponse response, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject();
+            generator.writeFieldName(PROBABILITIES);
+            generator.writeStartObject();
+            generator.writeFieldName(LOW);
+            generator.writeNumber(response.low);
+            generator.writeFieldName(MEDIUM);
+            generator.writeNumber(response.medium);
+            generator.writeFieldName(HIGH);
+            generator.writeNumber(response.high);
+            generator.writeEndObject();
+            generator.writeFieldName(PREDICTED_CLASS);
+            generator.writeString(CLASS_VALUES[response.predictedClass]);
+            if (response.explanation != null) {
+                generator.writeFieldName(EXPLANATION);
+                generator.writeString(response.explanation);
+            }
+            if (response.explanationId != null) {
+                generator.writeFieldName(EXPLANATION_ID);
+                generator.writeString(response.explanationId);
+            }
+            if (response.explanationStatus != null) {
+                generator.writeFieldName(EXPLANATION_STATUS);
+                generator.writeString(response.explanationStatus);
+            }
+            generator.writeEndObject();
+        }
+    }
+}
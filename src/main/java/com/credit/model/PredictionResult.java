@@ -0,0 +1,44 @@
+package com.credit.model;
+
+import lombok.Getter;
+
+/**
+ * Mutable, reusable holder for a single eligibility prediction.
+ * Callers on hot paths can keep one instance per thread and pass it back in
+ * to avoid allocating a new result for every request.
+ */
+@Getter
+public class PredictionResult {
+    public static final int NUM_CLASSES = 3; // Low, Medium, High
+
+    private final double[] probabilities = new double[NUM_CLASSES];
+    private int predictedClass;
+    private long modelVersion;
+
+    public double getProbability(int eligibilityClass) {
+        return probabilities[eligibilityClass];
+    }
+
+    public void setModelVersion(long modelVersion) {
+        this.modelVersion = modelVersion;
+    }
+
+    public void resolvePredictedClass() {
+        predictedClass = argmax(probabilities);
+    }
+
+    /**
+     * Index of the highest probability; ties go to the lower (less eligible) class.
+     * Every response that reports a predicted class uses this rule, so single, batch and
+     * streamed predictions agree.
+     */
+    public static int argmax(double[] probabilities) {
+        int maxIndex = 0;
+        for (int i = 1; i < probabilities.length; i++) {
+            if (probabilities[i] > probabilities[maxIndex]) {
+                maxIndex = i;
+            }
+        }
+        return maxIndex;
+    }
+}
@@ -0,0 +1,10 @@
+package com.credit.model;
+
+/**
+ * Class probabilities as returned to clients.
+ */
+public record Probabilities(double low, double medium, double high) {
+    public static Probabilities of(double[] probabilities) {
+        return new Probabilities(probabilities[0], probabilities[1], probabilities[2]);
+    }
+}
@@ -0,0 +1,7 @@
+package com.credit.model;
+
+import java.util.List;
+
+public record RecommendationResponse(Probabilities probabilities, String predictedClass, String recommendations,
+                                     List<CardSummary> cards) {
+}
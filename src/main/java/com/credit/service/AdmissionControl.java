@@ -0,0 +1,220 @@
+package com.credit.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Adaptive concurrency limit for the scoring endpoints (AIMD, as in TCP congestion
+ * control). Requests over the limit are rejected at once instead of piling up on the
+ * servlet worker pool, so the ones that are admitted keep meeting the latency target.
+ *
+ * Every interactive request that finishes within {@code admission.target-latency} while
+ * the limit was in use raises the limit by {@code 1/limit}, about one per round of
+ * requests. A slower one multiplies it by {@code admission.backoff-ratio}, at most once
+ * per target-latency interval so one slow burst does not collapse it. A retrain taking
+ * the CPU therefore shrinks the limit, and it grows back once latency recovers.
+ *
+ * Interactive requests may use the whole limit and wait up to {@code admission.max-wait}
+ * for a slot. Bulk requests only get {@code admission.batch-share} of it and never wait,
+ * so they are shed first. Their latency grows with their size, so it does not steer the limit.
+ */
+@Slf4j
+@Service
+public class AdmissionControl {
+    private static final long WAIT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    public enum Priority { INTERACTIVE, BATCH }
+
+    private final boolean enabled;
+    private final double minLimit;
+    private final double maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final double batchShare;
+    private final long maxWaitNanos;
+    private final Duration retryAfter;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private volatile double limit;
+    private long lastDecreaseNanos; // guarded by this
+
+    private final Counter[] admitted = new Counter[Priority.values().length];
+    private final Counter[] rejected = new Counter[Priority.values().length];
+    private final Timer[] waitTimers = new Timer[Priority.values().length];
+
+    /**
+     * A slot held by one admitted request. {@link #release()} must be called exactly
+     * once when the response is complete; further calls are ignored.
+     */
+    public final class Permit {
+        private final Priority priority;
+        private final long admittedNanos;
+        private final boolean limitInUse;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Priority priority, long admittedNanos, boolean limitInUse) {
+            this.priority = priority;
+            this.admittedNanos = admittedNanos;
+            this.limitInUse = limitInUse;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                if (priority == Priority.INTERACTIVE) {
+                    onSample(System.nanoTime() - admittedNanos, limitInUse);
+                }
+            }
+        }
+    }
+
+    public AdmissionControl(MeterRegistry registry,
+                            @Value("${admission.enabled:true}") boolean enabled,
+                            @Value("${admission.initial-limit:20}") int initialLimit,
+                            @Value("${admission.min-limit:2}") int minLimit,
+                            @Value("${admission.max-limit:200}") int maxLimit,
+                            @Value("${admission.target-latency:100ms}") Duration targetLatency,
+                            @Value("${admission.backoff-ratio:0.9}") double backoffRatio,
+                            @Value("${admission.batch-share:0.5}") double batchShare,
+                            @Value("${admission.max-wait:20ms}") Duration maxWait,
+                            @Value("${admission.retry-after:1s}") Duration retryAfter) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1
+            || batchShare <= 0 || batchShare > 1) {
+            throw new IllegalArgumentException("Invalid admission limits: min " + minLimit + ", max " + maxLimit
+                + ", backoff " + backoffRatio + ", batch share " + batchShare);
+        }
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.lastDecreaseNanos = System.nanoTime() - targetLatencyNanos;
+        this.backoffRatio = backoffRatio;
+        this.batchShare = batchShare;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfter = retryAfter;
+
+        Gauge.builder("credit.admission.limit", this, control -> control.limit)
+            .description("Current concurrency limit of the scoring endpoints")
+            .register(registry);
+        Gauge.builder("credit.admission.in.flight", inFlight, AtomicInteger::get)
+            .description("Admitted scoring requests still in progress")
+            .register(registry);
+        Gauge.builder("credit.admission.waiting", waiting, AtomicInteger::get)
+            .description("Requests waiting for a concurrency slot")
+            .register(registry);
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            admitted[priority.ordinal()] = Counter.builder("credit.admission.requests")
+                .description("Scoring requests by admission outcome")
+                .tags("priority", tag, "outcome", "admitted")
+                .register(registry);
+            rejected[priority.ordinal()] = Counter.builder("credit.admission.requests")
+                .description("Scoring requests by admission outcome")
+                .tags("priority", tag, "outcome", "rejected")
+                .register(registry);
+            waitTimers[priority.ordinal()] = Timer.builder("credit.admission.wait")
+                .description("Time a request waited for a concurrency slot")
+                .tag("priority", tag)
+                .publishPercentileHistogram()
+                .register(registry);
+        }
+        log.info("Admission control {} (limit {}, target latency {} ms)", enabled ? "enabled" : "disabled",
+            (int) limit, targetLatency.toMillis());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Admits a request, or returns null if it must be rejected.
+     */
+    public Permit tryAcquire(Priority priority) {
+        long start = System.nanoTime();
+        int slot = tryReserve(priority);
+        if (slot < 0 && priority == Priority.INTERACTIVE && maxWaitNanos > 0) {
+            waiting.incrementAndGet();
+            try {
+                long deadline = start + maxWaitNanos;
+                while (slot < 0 && System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(WAIT_PARK_NANOS);
+                    slot = tryReserve(priority);
+                }
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        long now = System.nanoTime();
+        waitTimers[priority.ordinal()].record(now - start, TimeUnit.NANOSECONDS);
+        if (slot < 0) {
+            rejected[priority.ordinal()].increment();
+            return null;
+        }
+        admitted[priority.ordinal()].increment();
+        // Only grow the limit when it is actually being used, not when traffic is light
+        return new Permit(priority, now, 2 * (slot + 1) >= limit);
+    }
+
+    // Returns the number of requests that were in flight before this one, or -1 if over the limit
+    private int tryReserve(Priority priority) {
+        int allowed = (int) (priority == Priority.INTERACTIVE ? limit : Math.max(1, limit * batchShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    private synchronized void onSample(long latencyNanos, boolean limitInUse) {
+        if (latencyNanos > targetLatencyNanos) {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos >= targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+        } else if (limitInUse) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("limit", (int) limit);
+        stats.put("inFlight", inFlight.get());
+        stats.put("waiting", waiting.get());
+        stats.put("targetLatencyMillis", TimeUnit.NANOSECONDS.toMillis(targetLatencyNanos));
+        for (Priority priority : Priority.values()) {
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("admitted", (long) admitted[priority.ordinal()].count());
+            counts.put("rejected", (long) rejected[priority.ordinal()].count());
+            counts.put("meanWaitMillis", waitTimers[priority.ordinal()].mean(TimeUnit.MILLISECONDS));
+            stats.put(priority.name().toLowerCase(Locale.ROOT), counts);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,203 @@
+package com.credit.service;
+
+import com.credit.model.CreditCard;
+import com.credit.model.CreditData;
+import com.credit.model.PredictionResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Full assessment of one applicant: the profile is scored and audited once, then the
+ * explanation and card recommendations are produced concurrently under one deadline.
+ *
+ * Subtasks never outlive the call. Whatever has not finished when the deadline passes
+ * is cancelled and reported as incomplete, and the rest of the assessment is returned.
+ * With {@code spring.threads.virtual.enabled=true} on Java 21 each subtask gets its own
+ * virtual thread; otherwise they share a bounded platform-thread pool.
+ */
+@Slf4j
+@Service
+public class AssessmentService {
+    private final ModelRegistry modelRegistry;
+    private final PredictionCache predictionCache;
+    private final ExplanationService explanationService;
+    private final CardCatalog cardCatalog;
+    private final GPTService gptService;
+    private final PredictionMetrics metrics;
+    private final AuditLog auditLog;
+    private final long deadlineNanos;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    private final LongAdder assessments = new LongAdder();
+    private final Map<String, LongAdder> incompleteStages = new ConcurrentHashMap<>();
+
+    /**
+     * Result of an assessment. Fields of stages listed in {@code incomplete} are null.
+     * {@code asyncExplanation} is set when LLM explanations are enabled and can be
+     * polled by id if it was still pending at the deadline.
+     */
+    public record Assessment(PredictionResult result, String explanation,
+                             ExplanationService.Explanation asyncExplanation, String recommendations,
+                             List<CreditCard> cards, Map<String, String> incomplete) {
+    }
+
+    public AssessmentService(ModelRegistry modelRegistry, PredictionCache predictionCache,
+                             ExplanationService explanationService, CardCatalog cardCatalog,
+                             GPTService gptService, PredictionMetrics metrics, AuditLog auditLog,
+                             @Value("${assessment.deadline:1s}") Duration deadline,
+                             @Value("${assessment.threads:8}") int threads,
+                             @Value("${assessment.queue-capacity:512}") int queueCapacity,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.modelRegistry = modelRegistry;
+        this.predictionCache = predictionCache;
+        this.explanationService = explanationService;
+        this.cardCatalog = cardCatalog;
+        this.gptService = gptService;
+        this.metrics = metrics;
+        this.auditLog = auditLog;
+        this.deadlineNanos = deadline.toNanos();
+
+        ExecutorService virtualExecutor = virtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+        this.virtualThreads = virtualExecutor != null;
+        if (virtualExecutor != null) {
+            this.executor = virtualExecutor;
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "assessment-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        }
+        log.info("Assessments fan out on {} with a {} ms deadline",
+            this.virtualThreads ? "virtual threads" : threads + " platform threads", deadline.toMillis());
+    }
+
+    public Assessment assess(CreditData creditData, String cardType, int cardLimit, String callbackUrl) {
+        long deadline = System.nanoTime() + deadlineNanos;
+        assessments.increment();
+
+        PredictionResult result = modelRegistry.predict(creditData, new PredictionResult());
+        double[] probabilities = result.getProbabilities();
+        // Every decision returned must be audited, so this is not a subtask that can miss the deadline
+        auditLog.record("assess", creditData, probabilities, result.getPredictedClass(), result.getModelVersion());
+
+        ExplanationService.Explanation asyncExplanation = null;
+        Future<String> explanation;
+        if (explanationService.isEnabled()) {
+            // Already off-thread; wait for the LLM only as long as the deadline allows
+            asyncExplanation = explanationService.submit(creditData, result, callbackUrl);
+            explanation = asyncExplanation.completion().thenApply(ExplanationService.Explanation::getText);
+        } else {
+            explanation = fork(() -> timed(PredictionMetrics.Stage.EXPLANATION,
+                () -> predictionCache.getExplanation(creditData, result)));
+        }
+        Future<List<CreditCard>> cards = fork(() -> timed(PredictionMetrics.Stage.RECOMMENDATION,
+            () -> cardCatalog.recommend(creditData.getFicoScore(), result.getPredictedClass(), cardType, cardLimit)));
+        Future<String> recommendations = fork(() -> gptService.getCardRecommendations(creditData, probabilities));
+
+        Map<String, String> incomplete = new LinkedHashMap<>();
+        return new Assessment(result,
+            join("explanation", explanation, deadline, incomplete),
+            asyncExplanation,
+            join("recommendations", recommendations, deadline, incomplete),
+            join("cards", cards, deadline, incomplete),
+            incomplete);
+    }
+
+    private <T> Future<T> fork(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Waits for a subtask until the shared deadline; on timeout or interrupt the subtask is cancelled
+    private <T> T join(String stage, Future<T> future, long deadline, Map<String, String> incomplete) {
+        String reason;
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            reason = "timeout";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            reason = "interrupted";
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                reason = "overloaded";
+            } else {
+                log.warn("Assessment stage {} failed: {}", stage, e.getCause().getMessage());
+                reason = "error";
+            }
+        }
+        incomplete.put(stage, reason);
+        incompleteStages.computeIfAbsent(stage, s -> new LongAdder()).increment();
+        return null;
+    }
+
+    private <T> T timed(PredictionMetrics.Stage stage, Callable<T> task) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            metrics.recordStage(stage, System.nanoTime() - start);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", virtualThreads ? "virtual" : "platform");
+        stats.put("deadlineMillis", TimeUnit.NANOSECONDS.toMillis(deadlineNanos));
+        stats.put("assessments", assessments.sum());
+        Map<String, Long> incompleteCounts = new LinkedHashMap<>();
+        incompleteStages.forEach((stage, count) -> incompleteCounts.put(stage, count.sum()));
+        stats.put("incomplete", incompleteCounts);
+        if (executor instanceof ThreadPoolExecutor pool) {
+            stats.put("active", pool.getActiveCount());
+            stats.put("queued", pool.getQueue().size());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Looked up reflectively so the code still compiles and runs on Java 17
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads need Java 21 (running {}); using platform threads for assessments",
+                Runtime.version());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.credit.service;
+
+import com.credit.model.CreditData;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only audit trail of every eligibility decision: inputs, probabilities,
+ * predicted class, model version, source endpoint and timestamp.
+ *
+ * Request threads only copy the decision into a small record and hand it to a
+ * lock-free bounded queue. A single writer thread drains the queue in batches into
+ * NDJSON segment files under {@code audit.dir}, rolls to a new segment at
+ * {@code audit.segment-size} and fsyncs at least every {@code audit.fsync-interval}.
+ *
+ * When the queue is full, {@code audit.overflow=drop} (the default) drops the record
+ * immediately. {@code block} makes the request wait up to {@code audit.block-timeout}
+ * for space before the record is dropped, which puts the writer's stalls on the request
+ * path. Dropped records are counted.
+ */
+@Slf4j
+@Service
+public class AuditLog {
+    private static final String[] CLASSES = {"Low", "Medium", "High"};
+    private static final String[] FEATURES = {
+        "ageOfCredit", "derogatoryMarks", "ficoScore", "missedPayments",
+        "creditInquiries", "totalAccounts", "creditLimit", "income"
+    };
+    private static final boolean[] INTEGER_FEATURES = {false, true, true, true, true, true, false, false};
+    private static final DateTimeFormatter SEGMENT_NAME =
+        DateTimeFormatter.ofPattern("'audit-'yyyyMMdd-HHmmss", Locale.ROOT).withZone(ZoneOffset.UTC);
+    private static final int MAX_BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentSize;
+    private final long fsyncIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final BoundedMpscQueue<Record> queue;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile boolean failed;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Timer fsyncTimer;
+    private final Timer flushLatency;
+
+    // Writer-owned state
+    private FileChannel channel;
+    private JsonGenerator generator;
+    private volatile Path segment;
+    private int segmentSequence;
+    private long oldestUnsyncedNanos = -1;
+    private long lastSyncNanos = System.nanoTime();
+    private volatile long segmentsWritten;
+
+    private record Record(long timestampMillis, long enqueuedNanos, String source, long modelVersion,
+                          int predictedClass, double[] probabilities, double[] features) {
+    }
+
+    @Autowired
+    public AuditLog(MeterRegistry registry,
+                    @Value("${audit.enabled:true}") boolean enabled,
+                    @Value("${audit.dir:audit}") String directory,
+                    @Value("${audit.segment-size:67108864}") long segmentSize,
+                    @Value("${audit.fsync-interval:1s}") Duration fsyncInterval,
+                    @Value("${audit.queue-capacity:65536}") int queueCapacity,
+                    @Value("${audit.overflow:drop}") OverflowPolicy overflowPolicy,
+                    @Value("${audit.block-timeout:50ms}") Duration blockTimeout) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.queue = new BoundedMpscQueue<>(queueCapacity);
+
+        Gauge.builder("credit.audit.queue.depth", queue, BoundedMpscQueue::size)
+            .description("Audit records waiting to be written")
+            .register(registry);
+        written = Counter.builder("credit.audit.records")
+            .description("Audit records by outcome")
+            .tag("outcome", "written")
+            .register(registry);
+        dropped = Counter.builder("credit.audit.records")
+            .description("Audit records by outcome")
+            .tag("outcome", "dropped")
+            .register(registry);
+        fsyncTimer = Timer.builder("credit.audit.fsync")
+            .description("Duration of one audit segment fsync")
+            .publishPercentileHistogram()
+            .register(registry);
+        flushLatency = Timer.builder("credit.audit.flush.latency")
+            .description("Time from the oldest record of a flush being queued until it is on disk")
+            .publishPercentileHistogram()
+            .register(registry);
+
+        this.writer = new Thread(this::run, "audit-writer");
+        this.writer.setDaemon(true);
+        if (enabled) {
+            writer.start();
+            log.info("Audit log writing to {} ({} overflow policy, fsync every {} ms)", this.directory.toAbsolutePath(),
+                overflowPolicy.name().toLowerCase(Locale.ROOT), fsyncInterval.toMillis());
+        }
+    }
+
+    /**
+     * Records one decision. Copies what it needs, so the caller may reuse its objects.
+     */
+    public void record(String source, CreditData input, double[] probabilities, int predictedClass,
+                       long modelVersion) {
+        if (!enabled) {
+            return;
+        }
+        if (failed) {
+            dropped.increment();
+            return;
+        }
+        double[] features = new double[FEATURES.length];
+        copyFeatures(input, features);
+        Record record = new Record(System.currentTimeMillis(), System.nanoTime(), source, modelVersion,
+            predictedClass, probabilities.clone(), features);
+        if (queue.offer(record)) {
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                if (queue.offer(record)) {
+                    return;
+                }
+            }
+        }
+        dropped.increment();
+    }
+
+    // Missing values are recorded as null rather than rejected; the decision was still made
+    private static void copyFeatures(CreditData input, double[] features) {
+        if (input == null) {
+            // A null element of a batch request is still scored, as Low
+            Arrays.fill(features, Double.NaN);
+            return;
+        }
+        features[0] = input.getAgeOfCredit() != null ? input.getAgeOfCredit() : Double.NaN;
+        features[1] = input.getDerogatoryMarks() != null ? input.getDerogatoryMarks() : Double.NaN;
+        features[2] = input.getFicoScore() != null ? input.getFicoScore() : Double.NaN;
+        features[3] = input.getMissedPayments() != null ? input.getMissedPayments() : Double.NaN;
+        features[4] = input.getCreditInquiries() != null ? input.getCreditInquiries() : Double.NaN;
+        features[5] = input.getTotalAccounts() != null ? input.getTotalAccounts() : Double.NaN;
+        features[6] = input.getCreditLimit() != null ? input.getCreditLimit() : Double.NaN;
+        features[7] = input.getIncome() != null ? input.getIncome() : Double.NaN;
+    }
+
+    private void run() {
+        try {
+            openSegment();
+            while (running || queue.size() > 0) {
+                int drained = drain();
+                if (drained > 0) {
+                    generator.flush();
+                    if (channel.size() >= segmentSize) {
+                        closeSegment();
+                        openSegment();
+                    }
+                }
+                if (oldestUnsyncedNanos >= 0 && System.nanoTime() - lastSyncNanos >= fsyncIntervalNanos) {
+                    sync();
+                }
+                if (drained == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            closeSegment();
+        } catch (IOException e) {
+            // Keep counting what cannot be written so the gap is visible in metrics
+            log.error("Audit log writer failed, further records are dropped: {}", e.getMessage());
+            failed = true;
+            while (queue.poll() != null) {
+                dropped.increment();
+            }
+        }
+    }
+
+    private int drain() throws IOException {
+        int drained = 0;
+        Record record;
+        while (drained < MAX_BATCH && (record = queue.poll()) != null) {
+            if (oldestUnsyncedNanos < 0) {
+                oldestUnsyncedNanos = record.enqueuedNanos();
+            }
+            write(record);
+            drained++;
+        }
+        if (drained > 0) {
+            written.increment(drained);
+        }
+        return drained;
+    }
+
+    private void write(Record record) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("timestamp", Instant.ofEpochMilli(record.timestampMillis()).toString());
+        generator.writeStringField("source", record.source());
+        generator.writeNumberField("modelVersion", record.modelVersion());
+        generator.writeStringField("predictedClass", CLASSES[record.predictedClass()]);
+        generator.writeObjectFieldStart("probabilities");
+        generator.writeNumberField("low", record.probabilities()[0]);
+        generator.writeNumberField("medium", record.probabilities()[1]);
+        generator.writeNumberField("high", record.probabilities()[2]);
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("input");
+        for (int j = 0; j < FEATURES.length; j++) {
+            double value = record.features()[j];
+            if (Double.isNaN(value)) {
+                generator.writeNullField(FEATURES[j]);
+            } else if (INTEGER_FEATURES[j]) {
+                generator.writeNumberField(FEATURES[j], (long) value);
+            } else {
+                generator.writeNumberField(FEATURES[j], value);
+            }
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void sync() throws IOException {
+        long start = System.nanoTime();
+        channel.force(false);
+        long end = System.nanoTime();
+        fsyncTimer.record(end - start, TimeUnit.NANOSECONDS);
+        if (oldestUnsyncedNanos >= 0) {
+            flushLatency.record(end - oldestUnsyncedNanos, TimeUnit.NANOSECONDS);
+        }
+        oldestUnsyncedNanos = -1;
+        lastSyncNanos = end;
+    }
+
+    private void openSegment() throws IOException {
+        Files.createDirectories(directory);
+        // Several segments can start in the same second; the sequence keeps names unique and ordered
+        segment = directory.resolve(String.format(Locale.ROOT, "%s-%06d.ndjson",
+            SEGMENT_NAME.format(Instant.now()), ++segmentSequence));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        generator = jsonFactory.createGenerator(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024),
+            JsonEncoding.UTF8);
+        generator.setRootValueSeparator(null);
+        segmentsWritten++;
+    }
+
+    private void closeSegment() throws IOException {
+        generator.flush();
+        sync();
+        generator.close(); // also closes the channel
+        log.debug("Closed audit segment {}", segment);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("directory", directory.toAbsolutePath().toString());
+        stats.put("overflowPolicy", overflowPolicy);
+        stats.put("queueCapacity", queue.capacity());
+        stats.put("queued", queue.size());
+        stats.put("written", (long) written.count());
+        stats.put("dropped", (long) dropped.count());
+        stats.put("segments", segmentsWritten);
+        stats.put("currentSegment", segment != null ? segment.getFileName().toString() : null);
+        stats.put("failed", failed);
+        return stats;
+    }
+
+    /**
+     * Lets the writer finish everything still queued, fsync and close the segment.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
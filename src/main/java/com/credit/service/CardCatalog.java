@@ -0,0 +1,92 @@
+package com.credit.service;
+
+import com.credit.model.CreditCard;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Card catalog loaded from {@code cards.catalog.path} into an in-memory {@link CardIndex}.
+ * Reloading builds a new index off to the side and swaps it in, so lookups never
+ * block and never see a half-built catalog.
+ */
+@Slf4j
+@Service
+public class CardCatalog {
+    private final Path catalogPath;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final AtomicReference<CardIndex> index = new AtomicReference<>(new CardIndex(List.of()));
+    private volatile Instant loadedAt;
+
+    public CardCatalog(@Value("${cards.catalog.path:data/credit_cards.json}") String catalogPath) {
+        this.catalogPath = Paths.get(catalogPath);
+        if (Files.exists(this.catalogPath)) {
+            try {
+                reload();
+            } catch (IOException e) {
+                // Refuse to start rather than silently recommending nothing
+                throw new IllegalStateException("Failed to load card catalog from " + catalogPath, e);
+            }
+        } else {
+            log.warn("Card catalog {} not found, recommendations will be empty until it is reloaded", catalogPath);
+        }
+    }
+
+    /**
+     * Re-reads the catalog file and swaps in a new index. On error the current
+     * index stays in place.
+     */
+    public int reload() throws IOException {
+        List<CreditCard> cards;
+        try (InputStream in = Files.newInputStream(catalogPath)) {
+            cards = Arrays.asList(objectMapper.readValue(in, CreditCard[].class));
+        }
+        CardIndex rebuilt = new CardIndex(cards);
+        index.set(rebuilt);
+        loadedAt = Instant.now();
+        log.info("Loaded {} cards of {} types from {}", rebuilt.size(), rebuilt.getTypes().size(), catalogPath);
+        return rebuilt.size();
+    }
+
+    /**
+     * Top {@code limit} cards the applicant qualifies for, ranked for their predicted
+     * eligibility class. {@code type} optionally restricts results to one card type.
+     * Without a FICO score only cards for the lowest score are considered.
+     */
+    public List<CreditCard> recommend(Integer ficoScore, int eligibilityClass, String type, int limit) {
+        int score = ficoScore != null ? ficoScore : CardIndex.MIN_SCORE;
+        return index.get().recommend(score, eligibilityClass, type, limit);
+    }
+
+    public List<CreditCard> getCards() {
+        return index.get().getCards();
+    }
+
+    public Map<String, Object> getStats() {
+        CardIndex current = index.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("path", catalogPath.toString());
+        stats.put("cards", current.size());
+        stats.put("types", current.getTypes());
+        stats.put("loadedAt", loadedAt);
+        stats.put("maxResults", CardIndex.MAX_RESULTS);
+        return stats;
+    }
+}
@@ -0,0 +1,170 @@
+package com.credit.service;
+
+import com.credit.model.CreditCard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, precomputed index over the card catalog.
+ *
+ * Cards are sorted by required credit score, with annual fee and APR kept in parallel
+ * primitive arrays and one bitset of positions per card type. At build time the index
+ * sweeps every FICO score from 300 to 850 and records the best {@link #MAX_RESULTS}
+ * cards the applicant qualifies for, per eligibility class and per type. A lookup is
+ * then a table read, independent of catalog size.
+ */
+final class CardIndex {
+    static final int MAX_RESULTS = 10;
+    static final int MIN_SCORE = 300;
+    static final int MAX_SCORE = 850;
+
+    private static final String ALL_TYPES = "";
+    private static final int[] NONE = new int[0];
+
+    // Ranking weights per eligibility class: annual fee (per $100), APR (per 10 points)
+    // and card tier (required score scaled to 0..1). Low-eligibility applicants are
+    // steered to cheap starter cards, high-eligibility ones to premium cards.
+    private static final double[][] CLASS_WEIGHTS = {
+        {-1.0, -0.5, -0.5}, // Low
+        {-0.5, -0.5, 0.5},  // Medium
+        {-0.1, -0.1, 1.0}   // High
+    };
+
+    private final CreditCard[] cards;
+    private final int[] scoreRequired;
+    private final double[] annualFees;
+    private final double[] aprs;
+    private final Map<String, BitSet> typeIndex = new HashMap<>();
+    private final Map<String, int[][][]> topCards = new HashMap<>(); // type -> [class][fico - MIN_SCORE]
+
+    CardIndex(List<CreditCard> catalog) {
+        // Stable sort keeps catalog order among cards with the same requirement
+        cards = catalog.stream()
+            .sorted(Comparator.comparingInt(CardIndex::requiredScore))
+            .toArray(CreditCard[]::new);
+        int n = cards.length;
+        scoreRequired = new int[n];
+        annualFees = new double[n];
+        aprs = new double[n];
+        for (int i = 0; i < n; i++) {
+            CreditCard card = cards[i];
+            scoreRequired[i] = requiredScore(card);
+            annualFees[i] = card.getAnnualFee() != null ? card.getAnnualFee() : 0.0;
+            aprs[i] = card.getApr() != null ? card.getApr() : 0.0;
+            if (card.getType() != null) {
+                typeIndex.computeIfAbsent(typeKey(card.getType()), key -> new BitSet(n)).set(i);
+            }
+        }
+
+        double[][] ranks = new double[CLASS_WEIGHTS.length][n];
+        for (int c = 0; c < CLASS_WEIGHTS.length; c++) {
+            double[] weights = CLASS_WEIGHTS[c];
+            for (int i = 0; i < n; i++) {
+                double tier = (Math.min(Math.max(scoreRequired[i], MIN_SCORE), MAX_SCORE) - MIN_SCORE)
+                    / (double) (MAX_SCORE - MIN_SCORE);
+                ranks[c][i] = weights[0] * annualFees[i] / 100.0 + weights[1] * aprs[i] / 10.0 + weights[2] * tier;
+            }
+        }
+
+        BitSet all = new BitSet(n);
+        all.set(0, n);
+        topCards.put(ALL_TYPES, buildTopCards(all, ranks));
+        for (Map.Entry<String, BitSet> entry : typeIndex.entrySet()) {
+            topCards.put(entry.getKey(), buildTopCards(entry.getValue(), ranks));
+        }
+    }
+
+    // Sweeps FICO scores upwards, adding cards as they become attainable
+    private int[][][] buildTopCards(BitSet members, double[][] ranks) {
+        int[][][] table = new int[CLASS_WEIGHTS.length][MAX_SCORE - MIN_SCORE + 1][];
+        for (int c = 0; c < CLASS_WEIGHTS.length; c++) {
+            double[] rank = ranks[c];
+            int[] top = new int[MAX_RESULTS];
+            int size = 0;
+            int[] current = NONE;
+            int next = members.nextSetBit(0);
+            for (int fico = MIN_SCORE; fico <= MAX_SCORE; fico++) {
+                boolean changed = false;
+                while (next >= 0 && scoreRequired[next] <= fico) {
+                    size = insert(top, size, next, rank);
+                    changed = true;
+                    next = members.nextSetBit(next + 1);
+                }
+                if (changed) {
+                    current = Arrays.copyOf(top, size);
+                }
+                // Scores with no new cards share the previous array
+                table[c][fico - MIN_SCORE] = current;
+            }
+        }
+        return table;
+    }
+
+    // Inserts position into the descending top list; earlier positions win ties
+    private static int insert(int[] top, int size, int position, double[] rank) {
+        int i = size;
+        while (i > 0 && rank[top[i - 1]] < rank[position]) {
+            i--;
+        }
+        if (i >= top.length) {
+            return size;
+        }
+        int newSize = Math.min(size + 1, top.length);
+        System.arraycopy(top, i, top, i + 1, newSize - i - 1);
+        top[i] = position;
+        return newSize;
+    }
+
+    /**
+     * Returns up to {@code limit} cards ranked for the applicant, optionally restricted
+     * to one card type (case-insensitive).
+     */
+    List<CreditCard> recommend(int ficoScore, int eligibilityClass, String type, int limit) {
+        if (ficoScore < MIN_SCORE || eligibilityClass < 0 || eligibilityClass >= CLASS_WEIGHTS.length) {
+            return List.of();
+        }
+        int[][][] table = topCards.get(type == null ? ALL_TYPES : typeKey(type));
+        if (table == null) {
+            return List.of();
+        }
+        int[] positions = table[eligibilityClass][Math.min(ficoScore, MAX_SCORE) - MIN_SCORE];
+        int count = Math.min(Math.max(limit, 0), positions.length);
+        List<CreditCard> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(cards[positions[i]]);
+        }
+        return result;
+    }
+
+    List<CreditCard> getCards() {
+        return List.of(cards);
+    }
+
+    int size() {
+        return cards.length;
+    }
+
+    List<String> getTypes() {
+        List<String> types = new ArrayList<>();
+        for (BitSet positions : typeIndex.values()) {
+            types.add(cards[positions.nextSetBit(0)].getType());
+        }
+        types.sort(null);
+        return types;
+    }
+
+    private static int requiredScore(CreditCard card) {
+        return card.getCreditScoreRequired() != null ? card.getCreditScoreRequired() : 0;
+    }
+
+    private static String typeKey(String type) {
+        return type.trim().toLowerCase(Locale.ROOT);
+    }
+}
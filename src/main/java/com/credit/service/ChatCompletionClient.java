@@ -0,0 +1,82 @@
+package com.credit.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal client for an OpenAI-compatible chat-completions endpoint. Every call
+ * carries its own timeout, so a slow provider can never hold a worker indefinitely.
+ */
+@Component
+public class ChatCompletionClient {
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI endpoint;
+    private final String apiKey;
+    private final String model;
+    private final int maxTokens;
+    private final Duration timeout;
+
+    public ChatCompletionClient(ObjectMapper objectMapper,
+                                @Value("${llm.base-url:https://api.openai.com}") String baseUrl,
+                                @Value("${openai.api.key:}") String apiKey,
+                                @Value("${llm.model:gpt-3.5-turbo}") String model,
+                                @Value("${llm.max-tokens:300}") int maxTokens,
+                                @Value("${llm.timeout:5s}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.endpoint = URI.create(baseUrl.replaceAll("/+$", "") + "/v1/chat/completions");
+        this.apiKey = apiKey;
+        this.model = model;
+        this.maxTokens = maxTokens;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(timeout)
+            .build();
+    }
+
+    /**
+     * Sends one chat completion and returns the first choice's message content.
+     * Throws {@link java.net.http.HttpTimeoutException} when the call exceeds the timeout.
+     */
+    public String complete(String systemPrompt, String userPrompt) throws IOException, InterruptedException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of(
+            "model", model,
+            "max_tokens", maxTokens,
+            "messages", List.of(
+                Map.of("role", "system", "content", systemPrompt),
+                Map.of("role", "user", "content", userPrompt)
+            )
+        ));
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .header("Authorization", "Bearer " + apiKey)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("Chat completion returned HTTP " + response.statusCode());
+        }
+        JsonNode content = objectMapper.readTree(response.body()).path("choices").path(0).path("message").path("content");
+        if (!content.isTextual() || content.asText().isBlank()) {
+            throw new IOException("Chat completion response has no message content");
+        }
+        return content.asText();
+    }
+
+    public URI getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,138 @@
+package com.credit.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the OpenAI chat-completions API, for running and load-testing
+ * the explanation pipeline offline. Responses are canned but shaped like the real
+ * API, with configurable latency and failure rate.
+ *
+ * Start it inside the application with {@code llm.stub.enabled=true} (and point
+ * {@code llm.base-url} at it), or standalone:
+ * <pre>
+ * java -cp ... com.credit.service.ChatCompletionStub [port] [latencyMillis] [failureRate]
+ * </pre>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "llm.stub.enabled", havingValue = "true")
+public class ChatCompletionStub {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int port;
+    private final long latencyMillis;
+    private final double failureRate;
+    private final AtomicLong requests = new AtomicLong();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ChatCompletionStub(@Value("${llm.stub.port:8089}") int port,
+                              @Value("${llm.stub.latency-ms:200}") long latencyMillis,
+                              @Value("${llm.stub.failure-rate:0.0}") double failureRate) {
+        this.port = port;
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        long latency = args.length > 1 ? Long.parseLong(args[1]) : 200;
+        double failureRate = args.length > 2 ? Double.parseDouble(args[2]) : 0.0;
+        new ChatCompletionStub(port, latency, failureRate).start();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        // Requests mostly sleep, so give each its own thread
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "llm-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", this::handle);
+        server.start();
+        log.info("Chat completion stub listening on http://localhost:{} ({} ms latency, {} failure rate)",
+            port, latencyMillis, failureRate);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            JsonNode request;
+            try (InputStream in = exchange.getRequestBody()) {
+                request = objectMapper.readTree(in);
+            }
+            long id = requests.incrementAndGet();
+            if (latencyMillis > 0) {
+                // +/- 25% jitter so concurrent calls do not finish in lockstep
+                long jitter = latencyMillis / 4;
+                Thread.sleep(latencyMillis + (jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0));
+            }
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                send(exchange, 500, Map.of("error", Map.of("message", "Stub failure", "type", "server_error")));
+                return;
+            }
+
+            JsonNode messages = request.path("messages");
+            String prompt = messages.path(messages.size() - 1).path("content").asText("");
+            String content = "Stub explanation #" + id + ": " + prompt.lines().skip(1).findFirst().orElse(prompt);
+            send(exchange, 200, Map.of(
+                "id", "chatcmpl-stub-" + id,
+                "object", "chat.completion",
+                "created", Instant.now().getEpochSecond(),
+                "model", request.path("model").asText("stub"),
+                "choices", List.of(Map.of(
+                    "index", 0,
+                    "message", Map.of("role", "assistant", "content", content),
+                    "finish_reason", "stop"
+                )),
+                "usage", Map.of("prompt_tokens", prompt.length() / 4, "completion_tokens", content.length() / 4,
+                    "total_tokens", (prompt.length() + content.length()) / 4)
+            ));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.credit.service;
+
+import com.credit.model.PredictionResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped, column-oriented training data file.
+ *
+ * <pre>
+ * offset  size             content (little endian)
+ * 0       4                magic "CTDF"
+ * 4       4                format version (1)
+ * 8       8                row count n
+ * 16      4                feature count (8)
+ * 20      44               reserved, zero
+ * 64      8 * n * 8        feature columns, float64, in CreditData order
+ * ...     n                labels, one byte per row (0=Low, 1=Medium, 2=High)
+ * </pre>
+ *
+ * Columns are mapped in segments so files larger than 2 GB and larger than the
+ * heap can be streamed; pages are only faulted in while a block is being read.
+ */
+@Slf4j
+public final class ColumnarTrainingFile implements TrainingDataSource {
+    static final int MAGIC = 0x46445443; // "CTDF" read as little endian
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int SEGMENT_ROWS = 1 << 26; // 512 MB of doubles per mapped segment
+
+    private final Path path;
+    private final long rows;
+    private final DoubleBuffer[][] columnSegments; // [feature][segment]
+    private final ByteBuffer[] labelSegments;
+
+    private ColumnarTrainingFile(Path path, long rows, DoubleBuffer[][] columnSegments, ByteBuffer[] labelSegments) {
+        this.path = path;
+        this.rows = rows;
+        this.columnSegments = columnSegments;
+        this.labelSegments = labelSegments;
+    }
+
+    public static ColumnarTrainingFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a columnar training file: " + path);
+            }
+            int version = header.getInt(4);
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported training file version " + version + " in " + path);
+            }
+            long rows = header.getLong(8);
+            int numFeatures = header.getInt(16);
+            if (numFeatures != NUM_FEATURES) {
+                throw new IOException("Expected " + NUM_FEATURES + " features but found " + numFeatures + " in " + path);
+            }
+            long expectedSize = HEADER_SIZE + rows * NUM_FEATURES * Double.BYTES + rows;
+            if (channel.size() != expectedSize) {
+                throw new IOException("Truncated training file " + path + ": expected " + expectedSize
+                    + " bytes but found " + channel.size());
+            }
+
+            int segments = (int) ((rows + SEGMENT_ROWS - 1) / SEGMENT_ROWS);
+            DoubleBuffer[][] columnSegments = new DoubleBuffer[NUM_FEATURES][segments];
+            ByteBuffer[] labelSegments = new ByteBuffer[segments];
+            for (int s = 0; s < segments; s++) {
+                long firstRow = (long) s * SEGMENT_ROWS;
+                long segmentRows = Math.min(SEGMENT_ROWS, rows - firstRow);
+                for (int j = 0; j < NUM_FEATURES; j++) {
+                    long offset = columnOffset(j, rows) + firstRow * Double.BYTES;
+                    MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, segmentRows * Double.BYTES);
+                    columnSegments[j][s] = mapped.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                }
+                labelSegments[s] = channel.map(FileChannel.MapMode.READ_ONLY, labelOffset(rows) + firstRow, segmentRows);
+            }
+            log.info("Mapped training file {} with {} rows", path, rows);
+            return new ColumnarTrainingFile(path, rows, columnSegments, labelSegments);
+        }
+    }
+
+    public static Writer writer(Path path) throws IOException {
+        return new Writer(path);
+    }
+
+    static ByteBuffer header(long rows) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(rows).putInt(NUM_FEATURES);
+        return header.clear();
+    }
+
+    static long columnOffset(int feature, long rows) {
+        return HEADER_SIZE + feature * rows * Double.BYTES;
+    }
+
+    static long labelOffset(long rows) {
+        return HEADER_SIZE + NUM_FEATURES * rows * Double.BYTES;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public long size() {
+        return rows;
+    }
+
+    @Override
+    public void read(long fromRow, int count, double[][] columns, int[] labels) {
+        int done = 0;
+        while (done < count) {
+            long row = fromRow + done;
+            int segment = (int) (row / SEGMENT_ROWS);
+            int index = (int) (row % SEGMENT_ROWS);
+            int n = Math.min(count - done, SEGMENT_ROWS - index);
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                // Absolute bulk get does not touch the buffer position, so concurrent readers are safe
+                columnSegments[j][segment].get(index, columns[j], done, n);
+            }
+            ByteBuffer labelSegment = labelSegments[segment];
+            for (int r = 0; r < n; r++) {
+                int label = labelSegment.get(index + r);
+                if (label < 0 || label >= PredictionResult.NUM_CLASSES) {
+                    throw new IllegalStateException("Invalid eligibility class " + label + " at row " + (row + r)
+                        + " of " + path);
+                }
+                labels[done + r] = label;
+            }
+            done += n;
+        }
+    }
+
+    /**
+     * Appends rows to one spill file per column and assembles the final file in
+     * {@link #finish()}, so rows can be written in a single streaming pass without
+     * knowing the row count up front. The target is replaced atomically.
+     */
+    public static final class Writer implements Closeable {
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final Path target;
+        private final Path[] spillFiles = new Path[NUM_FEATURES + 1];
+        private final FileChannel[] spillChannels = new FileChannel[NUM_FEATURES + 1];
+        private final ByteBuffer[] buffers = new ByteBuffer[NUM_FEATURES + 1];
+        private long rows;
+        private boolean finished;
+
+        private Writer(Path target) throws IOException {
+            this.target = target;
+            Path dir = target.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            for (int j = 0; j <= NUM_FEATURES; j++) {
+                spillFiles[j] = Files.createTempFile(dir, target.getFileName().toString(), ".col" + j);
+                spillChannels[j] = FileChannel.open(spillFiles[j], StandardOpenOption.WRITE);
+                buffers[j] = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        public void append(double[] features, int eligibilityClass) throws IOException {
+            if (eligibilityClass < 0 || eligibilityClass >= PredictionResult.NUM_CLASSES) {
+                throw new IllegalArgumentException("Invalid eligibility class: " + eligibilityClass);
+            }
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                ByteBuffer buffer = buffers[j];
+                if (buffer.remaining() < Double.BYTES) {
+                    drain(j);
+                }
+                buffer.putDouble(features[j]);
+            }
+            ByteBuffer labelBuffer = buffers[NUM_FEATURES];
+            if (!labelBuffer.hasRemaining()) {
+                drain(NUM_FEATURES);
+            }
+            labelBuffer.put((byte) eligibilityClass);
+            rows++;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        private void drain(int column) throws IOException {
+            ByteBuffer buffer = buffers[column];
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                spillChannels[column].write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Assembles the spill files into the target file and atomically moves it into place.
+         */
+        public void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            try {
+                for (int j = 0; j <= NUM_FEATURES; j++) {
+                    drain(j);
+                    spillChannels[j].close();
+                }
+
+                try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    ByteBuffer header = header(rows);
+                    while (header.hasRemaining()) {
+                        out.write(header);
+                    }
+                    for (int j = 0; j <= NUM_FEATURES; j++) {
+                        try (FileChannel in = FileChannel.open(spillFiles[j], StandardOpenOption.READ)) {
+                            long position = 0;
+                            long size = in.size();
+                            while (position < size) {
+                                position += in.transferTo(position, size - position, out);
+                            }
+                        }
+                    }
+                    out.force(true);
+                }
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                finished = true;
+                log.info("Wrote training file {} with {} rows", target, rows);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+
+        /**
+         * Releases the spill files. Rows are discarded unless {@link #finish()} completed.
+         */
+        @Override
+        public void close() throws IOException {
+            for (int j = 0; j <= NUM_FEATURES; j++) {
+                if (spillChannels[j].isOpen()) {
+                    spillChannels[j].close();
+                }
+                Files.deleteIfExists(spillFiles[j]);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.credit.service;
+
+import com.credit.model.PredictionResult;
+
+/**
+ * Serving form of a {@link ModelSnapshot} with the feature scaling folded into the weights.
+ *
+ * The reference path computes {@code w0 + sum(w[j] * (x[j] - mean[j]) / std[j])} per class.
+ * Expanding it gives per-class weights {@code w[j] / std[j]} and a bias
+ * {@code w0 - sum(w[j] * mean[j] / std[j])}, so scoring raw features is a single dot
+ * product. Weights are stored feature-major so the three class logits are accumulated
+ * side by side in one pass over the features.
+ *
+ * Folding changes the rounding, not the model: probabilities agree with the reference
+ * path to within {@link #PROBABILITY_TOLERANCE}, and the predicted class only differs
+ * when the top two probabilities are within that tolerance of each other.
+ */
+final class CompiledModel {
+    static final double PROBABILITY_TOLERANCE = 1e-9;
+
+    private static final int NUM_FEATURES = BatchScoringKernel.NUM_FEATURES;
+
+    private final double bias0;
+    private final double bias1;
+    private final double bias2;
+    private final double[] weights; // [feature * 3 + class]
+
+    CompiledModel(double[][] weights, double[] featureMeans, double[] featureStds) {
+        if (weights.length != PredictionResult.NUM_CLASSES) {
+            throw new IllegalArgumentException("Expected " + PredictionResult.NUM_CLASSES + " classes, got "
+                + weights.length);
+        }
+        double[] biases = new double[PredictionResult.NUM_CLASSES];
+        this.weights = new double[NUM_FEATURES * PredictionResult.NUM_CLASSES];
+        for (int c = 0; c < PredictionResult.NUM_CLASSES; c++) {
+            double bias = weights[c][0];
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                double folded = weights[c][j + 1] / featureStds[j];
+                this.weights[j * PredictionResult.NUM_CLASSES + c] = folded;
+                bias -= folded * featureMeans[j];
+            }
+            biases[c] = bias;
+        }
+        this.bias0 = biases[0];
+        this.bias1 = biases[1];
+        this.bias2 = biases[2];
+    }
+
+    double bias(int eligibilityClass) {
+        return eligibilityClass == 0 ? bias0 : eligibilityClass == 1 ? bias1 : bias2;
+    }
+
+    double weight(int eligibilityClass, int feature) {
+        return weights[feature * PredictionResult.NUM_CLASSES + eligibilityClass];
+    }
+
+    /**
+     * Writes class probabilities for the raw (unscaled) {@code features} into {@code probs}.
+     */
+    void probabilities(double[] features, double[] probs) {
+        double[] w = weights;
+        double l0 = bias0;
+        double l1 = bias1;
+        double l2 = bias2;
+        for (int j = 0, k = 0; j < NUM_FEATURES; j++, k += 3) {
+            double x = features[j];
+            l0 += w[k] * x;
+            l1 += w[k + 1] * x;
+            l2 += w[k + 2] * x;
+        }
+
+        // Softmax with numerical stability
+        double maxLogit = Math.max(l0, Math.max(l1, l2));
+        double p0 = Math.exp(l0 - maxLogit);
+        double p1 = Math.exp(l1 - maxLogit);
+        double p2 = Math.exp(l2 - maxLogit);
+        double sum = p0 + p1 + p2;
+        probs[0] = p0 / sum;
+        probs[1] = p1 / sum;
+        probs[2] = p2 / sum;
+    }
+
+    /**
+     * Returns the most likely class for the raw {@code features} without computing
+     * probabilities. Softmax is monotonic, so the largest logit wins; ties go to the
+     * lower class, as in {@link PredictionResult#resolvePredictedClass()}.
+     */
+    int predictClass(double[] features) {
+        double[] w = weights;
+        double l0 = bias0;
+        double l1 = bias1;
+        double l2 = bias2;
+        for (int j = 0, k = 0; j < NUM_FEATURES; j++, k += 3) {
+            double x = features[j];
+            l0 += w[k] * x;
+            l1 += w[k + 1] * x;
+            l2 += w[k + 2] * x;
+        }
+        int best = l1 > l0 ? 1 : 0;
+        return l2 > (best == 0 ? l0 : l1) ? 2 : best;
+    }
+}
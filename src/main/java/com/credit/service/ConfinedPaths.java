@@ -0,0 +1,44 @@
+package com.credit.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * Resolves file paths received over HTTP against the directory the endpoint may read from.
+ */
+final class ConfinedPaths {
+    private ConfinedPaths() {
+    }
+
+    /**
+     * Resolves {@code requested} against {@code root}. Absolute paths are accepted only if
+     * they lie under it. Throws {@link IllegalArgumentException} for paths that lead outside
+     * the directory, including through symbolic links.
+     */
+    static Path resolve(Path root, String requested) {
+        if (requested == null || requested.isBlank()) {
+            throw new IllegalArgumentException("Path must not be blank");
+        }
+        Path base = root.toAbsolutePath().normalize();
+        Path resolved;
+        try {
+            resolved = base.resolve(requested).normalize();
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Invalid path: " + requested);
+        }
+        if (!resolved.startsWith(base) || resolved.equals(base)) {
+            throw new IllegalArgumentException("Path " + requested + " is outside " + base);
+        }
+        try {
+            if (Files.exists(resolved) && !resolved.toRealPath().startsWith(base.toRealPath())) {
+                throw new IllegalArgumentException("Path " + requested + " is outside " + base);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return resolved;
+    }
+}
@@ -1,205 +1,490 @@
 package com.credit.service;
 
 import com.credit.model.CreditData;
+import com.credit.model.PredictionResult;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 
 @Slf4j
 @Service
 public class CreditPredictionService {
-    private double[][] weights; // [numClasses][numFeatures+1]
-    private final String modelPath = "models/credit_predictor.model";
+    private final Path modelPath;
     private final int numClasses = 3; // Low, Medium, High
     private final Random random = new Random();
-    
-    // Feature scaling parameters
-    private double[] featureMeans;
-    private double[] featureStds;
 
-    public CreditPredictionService() {
+    // Active model; training publishes a new snapshot with a single reference swap
+    private final AtomicReference<ModelSnapshot> model = new AtomicReference<>();
+    private final AtomicLong latestVersion = new AtomicLong();
+    // Held from the swap until listeners have run, so every model change is seen in activation order
+    private final Object activationLock = new Object();
+    private final List<ModelChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final PredictionMetrics metrics;
+    private final boolean compiledScoring;
+    private volatile DriftMonitor driftMonitor;
+
+    // Activated models are saved off the activation path; only the newest pending one is written
+    private final AtomicReference<ModelSnapshot> pendingSave = new AtomicReference<>();
+    private final ExecutorService modelWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "model-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Per-thread buffers so single predictions do not allocate
+    private static final ThreadLocal<ScoringScratch> SCRATCH = ThreadLocal.withInitial(ScoringScratch::new);
+
+    private static final class ScoringScratch {
+        final double[] features = new double[9]; // bias + 8 features
+        final double[] logits = new double[PredictionResult.NUM_CLASSES];
+        int calls; // decides which calls time their stages
+    }
+
+    public CreditPredictionService(String modelPath) {
+        this(modelPath, PredictionMetrics.noop(), true);
+    }
+
+    /**
+     * With {@code compiledScoring} predictions use the snapshot's {@link CompiledModel};
+     * otherwise every call scales the features and applies the trained weights directly.
+     */
+    @Autowired
+    public CreditPredictionService(@Value("${model.path:models/credit_predictor.model}") String modelPath,
+                                   PredictionMetrics metrics,
+                                   @Value("${model.scoring.compiled:true}") boolean compiledScoring) {
+        this.modelPath = Paths.get(modelPath);
+        this.metrics = metrics;
+        this.compiledScoring = compiledScoring;
         loadModel();
+        latestVersion.set(model.get().getVersion());
+        metrics.modelActivated(model.get().getVersion());
     }
 
     private void loadModel() {
         try {
-            File modelFile = new File(modelPath);
-            if (modelFile.exists()) {
+            if (Files.exists(modelPath)) {
                 log.info("Loading existing model from {}", modelPath);
-                try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(modelFile))) {
-                    weights = (double[][]) ois.readObject();
-                    featureMeans = (double[]) ois.readObject();
-                    featureStds = (double[]) ois.readObject();
-                    log.info("Model loaded successfully");
+                ModelSnapshot snapshot;
+                if (ModelFile.isLegacy(modelPath)) {
+                    // One-time migration from the old Java-serialized format
+                    snapshot = ModelFile.readLegacy(modelPath);
+                    Path backup = modelPath.resolveSibling(modelPath.getFileName() + ".legacy");
+                    Files.copy(modelPath, backup, StandardCopyOption.REPLACE_EXISTING);
+                    ModelFile.write(snapshot, modelPath);
+                    log.info("Migrated legacy model file to binary format, original kept at {}", backup);
+                } else {
+                    snapshot = ModelFile.read(modelPath);
                 }
+                model.set(snapshot);
+                log.info("Model version {} loaded successfully", snapshot.getVersion());
             } else {
                 log.info("No existing model found. Initializing with random weights");
-                // Initialize weights with Xavier/Glorot initialization
-                weights = new double[numClasses][9]; // 8 features + bias
-                double scale = Math.sqrt(2.0 / (9 + numClasses));
-                for (int i = 0; i < weights.length; i++) {
-                    for (int j = 0; j < weights[i].length; j++) {
-                        weights[i][j] = (random.nextDouble() * 2 - 1) * scale;
-                    }
-                }
                 // Initialize scaling parameters
-                featureMeans = new double[8];
-                featureStds = new double[8];
+                double[] featureStds = new double[8];
                 Arrays.fill(featureStds, 1.0); // Default to no scaling
+                model.set(new ModelSnapshot(1, initialWeights(random), new double[8], featureStds, null, 0, Double.NaN));
             }
-        } catch (Exception e) {
+        } catch (IOException e) {
+            // Refuse to start rather than silently serving a zeroed model
             log.error("Error loading model: {}", e.getMessage());
-            weights = new double[numClasses][9];
-            featureMeans = new double[8];
-            featureStds = new double[8];
-            Arrays.fill(featureStds, 1.0);
+            throw new IllegalStateException("Failed to load model from " + modelPath, e);
+        }
+    }
+
+    private double[][] initialWeights(Random random) {
+        // Initialize weights with Xavier/Glorot initialization
+        double[][] weights = new double[numClasses][9]; // 8 features + bias
+        double scale = Math.sqrt(2.0 / (9 + numClasses));
+        for (int i = 0; i < weights.length; i++) {
+            for (int j = 0; j < weights[i].length; j++) {
+                weights[i][j] = (random.nextDouble() * 2 - 1) * scale;
+            }
+        }
+        return weights;
+    }
+
+    Path getModelPath() {
+        return modelPath;
+    }
+
+    public ModelSnapshot getModelSnapshot() {
+        return model.get();
+    }
+
+    public void addModelChangeListener(ModelChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    // Receives the raw features of every production prediction
+    void setDriftMonitor(DriftMonitor driftMonitor) {
+        this.driftMonitor = driftMonitor;
+    }
+
+    /**
+     * Makes {@code snapshot} the serving model with a single reference swap and notifies
+     * listeners. The model is saved to the model path in the background. Returns the model
+     * it replaced.
+     *
+     * Activations are serialized, so listeners see the changes in the order they were made.
+     * Listeners run on the activating thread while the activation lock is held; callers must
+     * not hold a lock a listener takes.
+     */
+    public ModelSnapshot activate(ModelSnapshot snapshot) {
+        synchronized (activationLock) {
+            ModelSnapshot previous = model.getAndSet(snapshot);
+            published(previous, snapshot);
+            return previous;
+        }
+    }
+
+    /**
+     * Activates {@code snapshot} only if {@code expected} is still serving, so an update
+     * derived from {@code expected} cannot overwrite a model activated in the meantime.
+     */
+    boolean activateIfCurrent(ModelSnapshot expected, ModelSnapshot snapshot) {
+        synchronized (activationLock) {
+            if (!model.compareAndSet(expected, snapshot)) {
+                return false;
+            }
+            published(expected, snapshot);
+            return true;
+        }
+    }
+
+    // Reserves a version number for a snapshot built outside trainModel
+    long nextVersion() {
+        return latestVersion.incrementAndGet();
+    }
+
+    // Caller holds activationLock
+    private void published(ModelSnapshot previous, ModelSnapshot snapshot) {
+        latestVersion.accumulateAndGet(snapshot.getVersion(), Math::max);
+        log.info("Now serving model version {}", snapshot.getVersion());
+        metrics.modelActivated(snapshot.getVersion());
+        for (ModelChangeListener listener : listeners) {
+            listener.onModelChanged(previous, snapshot);
+        }
+        if (pendingSave.getAndSet(snapshot) == null) {
+            modelWriter.execute(this::savePending);
+        }
+    }
+
+    private void savePending() {
+        ModelSnapshot snapshot = pendingSave.getAndSet(null);
+        if (snapshot != null) {
+            saveModel(snapshot);
         }
     }
 
     public double[] predictEligibility(CreditData creditData) {
+        return predictEligibility(creditData, new PredictionResult()).getProbabilities();
+    }
+
+    public PredictionResult predictEligibility(CreditData creditData, PredictionResult result) {
+        return predictEligibility(creditData, result, model.get());
+    }
+
+    public PredictionResult predictEligibility(CreditData creditData, PredictionResult result, ModelSnapshot snapshot) {
+        ScoringScratch scratch = SCRATCH.get();
+        double[] features = scratch.features;
+        double[] probs = result.getProbabilities();
+        boolean timed = metrics.sampleStages(scratch.calls++);
         try {
-            // Create feature vector
-            double[] features = new double[] {
-                1.0, // bias term
-                creditData.getAgeOfCredit(),
-                creditData.getDerogatoryMarks(),
-                creditData.getFicoScore(),
-                creditData.getMissedPayments(),
-                creditData.getCreditInquiries(),
-                creditData.getTotalAccounts(),
-                creditData.getCreditLimit(),
-                creditData.getIncome()
-            };
-            
-            // Scale features (excluding bias term)
-            for (int i = 1; i < features.length; i++) {
-                features[i] = (features[i] - featureMeans[i-1]) / featureStds[i-1];
+            if (compiledScoring) {
+                long start = timed ? System.nanoTime() : 0L;
+                creditData.copyFeatures(features, 0);
+                recordDrift(features, 0, snapshot);
+                long extracted = timed ? System.nanoTime() : 0L;
+
+                // Scaling is folded into the compiled weights
+                snapshot.compiled().probabilities(features, probs);
+                if (timed) {
+                    metrics.recordStage(PredictionMetrics.Stage.FEATURE_EXTRACTION, extracted - start);
+                    metrics.recordStage(PredictionMetrics.Stage.SOFTMAX, System.nanoTime() - extracted);
+                }
+            } else {
+                predictReference(creditData, snapshot, scratch, probs, timed);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Predicted probabilities: {}", Arrays.toString(probs));
             }
+        } catch (Exception e) {
+            log.error("Error making prediction: {}", e.getMessage());
+            // Default to Low probability
+            probs[0] = 1.0;
+            probs[1] = 0.0;
+            probs[2] = 0.0;
+        }
+        result.resolvePredictedClass();
+        result.setModelVersion(snapshot.getVersion());
+        return result;
+    }
 
+    private void predictReference(CreditData creditData, ModelSnapshot snapshot, ScoringScratch scratch,
+                                  double[] probs, boolean timed) {
+        double[] featureMeans = snapshot.featureMeans();
+        double[] featureStds = snapshot.featureStds();
+        double[] features = scratch.features;
+        long start = timed ? System.nanoTime() : 0L;
+
+        // Create feature vector
+        features[0] = 1.0; // bias term
+        creditData.copyFeatures(features, 1);
+        recordDrift(features, 1, snapshot);
+        long extracted = timed ? System.nanoTime() : 0L;
+
+        // Scale features (excluding bias term)
+        for (int i = 1; i < features.length; i++) {
+            features[i] = (features[i] - featureMeans[i-1]) / featureStds[i-1];
+        }
+        long scaled = timed ? System.nanoTime() : 0L;
+
+        if (log.isDebugEnabled()) {
             log.debug("Feature vector: {}", Arrays.toString(features));
+        }
 
-            // Calculate probabilities for each class
-            double[] probs = predictProbabilities(features);
-            log.debug("Predicted probabilities: {}", Arrays.toString(probs));
-            return probs;
-        } catch (Exception e) {
-            log.error("Error making prediction: {}", e.getMessage());
-            return new double[]{1.0, 0.0, 0.0}; // Default to Low probability
+        // Calculate probabilities for each class
+        computeProbabilities(snapshot.weights(), features, scratch.logits, probs);
+        if (timed) {
+            metrics.recordStage(PredictionMetrics.Stage.FEATURE_EXTRACTION, extracted - start);
+            metrics.recordStage(PredictionMetrics.Stage.SCALING, scaled - extracted);
+            metrics.recordStage(PredictionMetrics.Stage.SOFTMAX, System.nanoTime() - scaled);
         }
     }
 
-    public void trainModel(List<double[]> features, List<Integer> labels) {
+    // Candidate and shadow scoring would count the same applicant twice, so only production is recorded
+    private void recordDrift(double[] features, int offset, ModelSnapshot snapshot) {
+        DriftMonitor monitor = driftMonitor;
+        if (monitor != null && snapshot == model.get()) {
+            monitor.record(features, offset);
+        }
+    }
+
+    /**
+     * Records an applicant whose prediction was served without scoring, e.g. from the
+     * prediction cache, so that drift covers all production traffic.
+     */
+    void recordDrift(CreditData creditData) {
+        DriftMonitor monitor = driftMonitor;
+        if (monitor != null) {
+            double[] features = SCRATCH.get().features;
+            creditData.copyFeatures(features, 0);
+            monitor.record(features, 0);
+        }
+    }
+
+    /**
+     * Returns only the predicted class (0 = Low, 1 = Medium, 2 = High), skipping the
+     * softmax when compiled scoring is on. Profiles with missing values are Low, as in
+     * {@link #predictEligibility(CreditData, PredictionResult)}.
+     */
+    public int predictClass(CreditData creditData) {
+        return predictClass(creditData, model.get());
+    }
+
+    public int predictClass(CreditData creditData, ModelSnapshot snapshot) {
+        if (!compiledScoring) {
+            return predictEligibility(creditData, new PredictionResult(), snapshot).getPredictedClass();
+        }
+        double[] features = SCRATCH.get().features;
         try {
-            log.info("Starting model training with {} samples", features.size());
-            int numSamples = features.size();
-            
-            // Calculate feature means and standard deviations (excluding bias term)
-            featureMeans = new double[8];
-            featureStds = new double[8];
-            
-            // Calculate means
-            for (double[] feature : features) {
-                for (int i = 1; i < feature.length; i++) {
-                    featureMeans[i-1] += feature[i];
+            creditData.copyFeatures(features, 0);
+        } catch (NullPointerException e) {
+            log.error("Error making prediction: missing feature value");
+            return 0;
+        }
+        recordDrift(features, 0, snapshot);
+        return snapshot.compiled().predictClass(features);
+    }
+
+    public double[][] predictEligibilityBatch(List<CreditData> batch) {
+        return predictEligibilityBatch(batch, model.get());
+    }
+
+    public double[][] predictEligibilityBatch(List<CreditData> batch, ModelSnapshot snapshot) {
+        int size = batch.size();
+        double[][] results = new double[size][numClasses];
+        int blockSize = Math.min(size, BatchScoringKernel.BLOCK_SIZE);
+        double[][] columns = new double[BatchScoringKernel.NUM_FEATURES][blockSize];
+        double[][] logits = new double[numClasses][blockSize];
+        boolean[] invalid = new boolean[blockSize];
+
+        for (int start = 0; start < size; start += blockSize) {
+            int rows = Math.min(blockSize, size - start);
+
+            // Read applicants into columnar primitive arrays
+            for (int r = 0; r < rows; r++) {
+                CreditData creditData = batch.get(start + r);
+                try {
+                    columns[0][r] = creditData.getAgeOfCredit();
+                    columns[1][r] = creditData.getDerogatoryMarks();
+                    columns[2][r] = creditData.getFicoScore();
+                    columns[3][r] = creditData.getMissedPayments();
+                    columns[4][r] = creditData.getCreditInquiries();
+                    columns[5][r] = creditData.getTotalAccounts();
+                    columns[6][r] = creditData.getCreditLimit();
+                    columns[7][r] = creditData.getIncome();
+                    invalid[r] = false;
+                } catch (Exception e) {
+                    invalid[r] = true;
                 }
             }
-            for (int i = 0; i < featureMeans.length; i++) {
-                featureMeans[i] /= numSamples;
+
+            if (compiledScoring) {
+                BatchScoringKernel.score(snapshot.compiled(), columns, rows, logits, results, start);
+            } else {
+                BatchScoringKernel.score(snapshot.weights(), snapshot.featureMeans(), snapshot.featureStds(), columns, rows, logits, results, start);
             }
-            
-            // Calculate standard deviations
-            for (double[] feature : features) {
-                for (int i = 1; i < feature.length; i++) {
-                    double diff = feature[i] - featureMeans[i-1];
-                    featureStds[i-1] += diff * diff;
+
+            for (int r = 0; r < rows; r++) {
+                if (invalid[r]) {
+                    log.error("Error making prediction for batch row {}: missing feature value", start + r);
+                    results[start + r] = new double[]{1.0, 0.0, 0.0}; // Default to Low probability
                 }
             }
-            for (int i = 0; i < featureStds.length; i++) {
-                featureStds[i] = Math.sqrt(featureStds[i] / numSamples);
-                if (featureStds[i] < 1e-8) featureStds[i] = 1.0; // Prevent division by zero
-            }
-            
-            // Scale features
-            for (double[] feature : features) {
-                for (int i = 1; i < feature.length; i++) {
-                    feature[i] = (feature[i] - featureMeans[i-1]) / featureStds[i-1];
-                }
+        }
+
+        log.debug("Scored batch of {} applicants", size);
+        return results;
+    }
+
+    public void trainModel(List<double[]> features, List<Integer> labels) {
+        trainModel(features, labels, TrainingConfig.defaults());
+    }
+
+    public void trainModel(List<double[]> features, List<Integer> labels, TrainingConfig config) {
+        trainModel(new InMemoryTrainingData(features, labels), config);
+    }
+
+    public void trainModel(TrainingDataSource source, TrainingConfig config) {
+        trainModel(source, config, TrainingMonitor.NONE);
+    }
+
+    public void trainModel(TrainingDataSource source, TrainingConfig config, TrainingMonitor monitor) {
+        trainModel(source, config, monitor, true);
+    }
+
+    /**
+     * Trains a new model snapshot. With {@code activate} the snapshot is published and
+     * saved as the serving model; otherwise it is only returned, e.g. to register it
+     * as a candidate.
+     */
+    public ModelSnapshot trainModel(TrainingDataSource source, TrainingConfig config, TrainingMonitor monitor,
+                                    boolean activate) {
+        long trainingStart = System.nanoTime();
+        try {
+            log.info("Starting model training with {} samples on {} threads", source.size(),
+                config.effectiveParallelism());
+            ModelSnapshot trained = fit(source, config, metrics.instrument(monitor), latestVersion::incrementAndGet);
+            metrics.recordTraining(System.nanoTime() - trainingStart);
+
+            log.info("Model training completed successfully, trained version {}", trained.getVersion());
+            if (activate) {
+                // Publish the new model atomically; it is saved in the background
+                activate(trained);
             }
-            
-            // Training parameters
-            double learningRate = 0.01;
-            int numEpochs = 100;
-            double lambda = 0.01; // L2 regularization parameter
-            
-            // Initialize weights with Xavier/Glorot initialization
-            weights = new double[numClasses][9];
-            double scale = Math.sqrt(2.0 / (9 + numClasses));
-            for (int i = 0; i < weights.length; i++) {
-                for (int j = 0; j < weights[i].length; j++) {
-                    weights[i][j] = (random.nextDouble() * 2 - 1) * scale;
+            return trained;
+
+        } catch (CancellationException e) {
+            log.info("Model training cancelled: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error training model: {}", e.getMessage());
+            throw new RuntimeException("Failed to train model", e);
+        }
+    }
+
+    /**
+     * Fits scaling parameters and weights to {@code source} without publishing the result.
+     * The version is only drawn from {@code version} once training has succeeded.
+     */
+    ModelSnapshot fit(TrainingDataSource source, TrainingConfig config, TrainingMonitor monitor, LongSupplier version) {
+        long numSamples = source.size();
+        if (numSamples == 0) {
+            throw new IllegalArgumentException("No training samples");
+        }
+
+        // Calculate feature means and standard deviations, streaming over the source
+        double[] featureMeans = new double[8];
+        double[] featureStds = new double[8];
+        computeFeatureStatistics(source, featureMeans, featureStds);
+
+        // Weights are trained off to the side; serving keeps reading the active snapshot
+        Random initRandom = config.getSeed() != null ? new Random(config.getSeed()) : random;
+        ParallelTrainer trainer = new ParallelTrainer(config, numClasses);
+        ParallelTrainer.Result result = trainer.train(source, featureMeans, featureStds,
+            initialWeights(initRandom), monitor);
+
+        // Reference distribution for drift monitoring, bucketed around the statistics just computed
+        FeatureDistribution distribution = FeatureDistribution.of(source, featureMeans, featureStds);
+        return new ModelSnapshot(version.getAsLong(), result.weights, featureMeans, featureStds, Instant.now(),
+            numSamples, result.loss, distribution);
+    }
+
+    private static void computeFeatureStatistics(TrainingDataSource source, double[] featureMeans, double[] featureStds) {
+        long numSamples = source.size();
+        int blockSize = ParallelTrainer.BLOCK_SIZE;
+        double[][] columns = new double[TrainingDataSource.NUM_FEATURES][blockSize];
+        int[] labels = new int[blockSize];
+
+        // Calculate means
+        for (long start = 0; start < numSamples; start += blockSize) {
+            int rows = (int) Math.min(blockSize, numSamples - start);
+            source.read(start, rows, columns, labels);
+            for (int i = 0; i < featureMeans.length; i++) {
+                double[] column = columns[i];
+                for (int r = 0; r < rows; r++) {
+                    featureMeans[i] += column[r];
                 }
             }
-            
-            // Gradient descent
-            for (int epoch = 0; epoch < numEpochs; epoch++) {
-                double[][] gradients = new double[numClasses][weights[0].length];
-                double totalLoss = 0.0;
-                
-                // Compute gradients
-                for (int i = 0; i < numSamples; i++) {
-                    double[] probs = predictProbabilities(features.get(i));
-                    int trueClass = labels.get(i);
-                    
-                    // Cross-entropy loss
-                    totalLoss -= Math.log(probs[trueClass] + 1e-15);
-                    
-                    for (int c = 0; c < numClasses; c++) {
-                        double error = probs[c] - (c == trueClass ? 1.0 : 0.0);
-                        for (int j = 0; j < weights[c].length; j++) {
-                            gradients[c][j] += error * features.get(i)[j];
-                        }
-                    }
-                }
-                
-                // Add L2 regularization term to loss
-                double regTerm = 0.0;
-                for (int c = 0; c < numClasses; c++) {
-                    for (int j = 0; j < weights[c].length; j++) {
-                        regTerm += weights[c][j] * weights[c][j];
-                    }
-                }
-                totalLoss += (lambda / 2) * regTerm;
-                
-                // Update weights with L2 regularization
-                for (int c = 0; c < numClasses; c++) {
-                    for (int j = 0; j < weights[c].length; j++) {
-                        weights[c][j] -= learningRate * (gradients[c][j] / numSamples + lambda * weights[c][j]);
-                    }
-                }
+        }
+        for (int i = 0; i < featureMeans.length; i++) {
+            featureMeans[i] /= numSamples;
+        }
 
-                if ((epoch + 1) % 10 == 0) {
-                    log.info("Epoch {}/{}, Loss: {}", epoch + 1, numEpochs, totalLoss / numSamples);
+        // Calculate standard deviations
+        for (long start = 0; start < numSamples; start += blockSize) {
+            int rows = (int) Math.min(blockSize, numSamples - start);
+            source.read(start, rows, columns, labels);
+            for (int i = 0; i < featureStds.length; i++) {
+                double[] column = columns[i];
+                double mean = featureMeans[i];
+                for (int r = 0; r < rows; r++) {
+                    double diff = column[r] - mean;
+                    featureStds[i] += diff * diff;
                 }
             }
-            
-            // Save the trained model
-            saveModel();
-            log.info("Model training completed successfully");
-            
-        } catch (Exception e) {
-            log.error("Error training model: {}", e.getMessage());
-            throw new RuntimeException("Failed to train model", e);
+        }
+        for (int i = 0; i < featureStds.length; i++) {
+            featureStds[i] = Math.sqrt(featureStds[i] / numSamples);
+            if (featureStds[i] < 1e-8) featureStds[i] = 1.0; // Prevent division by zero
         }
     }
 
-    private double[] predictProbabilities(double[] features) {
-        double[] logits = new double[numClasses];
+    private static void computeProbabilities(double[][] weights, double[] features, double[] logits, double[] probs) {
+        int numClasses = weights.length;
         double maxLogit = Double.NEGATIVE_INFINITY;
-        
+
         // Calculate logits and track maximum for numerical stability
         for (int c = 0; c < numClasses; c++) {
             logits[c] = 0;
@@ -208,41 +493,38 @@ public class CreditPredictionService {
             }
             maxLogit = Math.max(maxLogit, logits[c]);
         }
-        
+
         // Apply softmax with numerical stability
-        double[] probs = new double[numClasses];
         double sum = 0.0;
-        
+
         for (int i = 0; i < numClasses; i++) {
             probs[i] = Math.exp(logits[i] - maxLogit);
             sum += probs[i];
         }
-        
+
         for (int i = 0; i < numClasses; i++) {
             probs[i] /= sum;
         }
-        
-        return probs;
     }
 
-    private void saveModel() {
+    private void saveModel(ModelSnapshot snapshot) {
         try {
-            // Create models directory if it doesn't exist
-            File modelDir = new File("models");
-            if (!modelDir.exists()) {
-                modelDir.mkdirs();
-            }
-            
-            // Save the model and scaling parameters
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(modelPath))) {
-                oos.writeObject(weights);
-                oos.writeObject(featureMeans);
-                oos.writeObject(featureStds);
-                log.info("Model saved successfully to {}", modelPath);
-            }
+            ModelFile.write(snapshot, modelPath);
+            log.info("Model version {} saved successfully to {}", snapshot.getVersion(), modelPath);
         } catch (Exception e) {
-            log.error("Error saving model: {}", e.getMessage());
-            throw new RuntimeException("Failed to save model", e);
+            // The model is already serving; the next activation tries to save again
+            log.error("Error saving model version {}: {}", snapshot.getVersion(), e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for the last activated model to be saved.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        modelWriter.shutdown();
+        if (!modelWriter.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Model version {} may not have been saved", model.get().getVersion());
         }
     }
 }
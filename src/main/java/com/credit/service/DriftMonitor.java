@@ -0,0 +1,348 @@
+package com.credit.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares the features of live predictions with the distribution the serving model
+ * was trained on.
+ *
+ * The request path adds each applicant to one of a few striped accumulators: per
+ * feature a count per {@link FeatureDistribution} bucket, a sum and a sum of squares.
+ * A stripe is claimed with a single CAS and never waited for; if it is taken, the
+ * next one is tried, and if that is taken as well the sample is skipped and counted.
+ * A background task merges the stripes every {@code drift.interval} and scores the
+ * last {@code drift.window} of traffic against the training histogram: population
+ * stability index (PSI), Kolmogorov-Smirnov distance over the bucket CDFs, and the
+ * shift of the mean in training standard deviations.
+ *
+ * PSI below 0.1 is reported as stable, below 0.25 as moderate and above that as
+ * significant drift. Models without a training histogram (random initial weights or
+ * files from before histograms were saved) only get the mean shift.
+ */
+@Slf4j
+@Service
+public class DriftMonitor implements ModelChangeListener {
+    private static final int NUM_FEATURES = FeatureDistribution.NUM_FEATURES;
+    private static final int BUCKETS = FeatureDistribution.BUCKETS;
+    private static final double MIN_FRACTION = 1e-4; // keeps PSI finite for empty buckets
+    private static final double MODERATE_PSI = 0.1;
+    private static final double SIGNIFICANT_PSI = 0.25;
+
+    private final long minSamples;
+    private final int historyLength;
+    private final int stripeMask;
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder skipped = new LongAdder();
+
+    private volatile Window window;
+    private volatile Report report;
+
+    // Accumulators for one reference distribution; replaced when a model with other training data is activated
+    private final class Window {
+        final ModelSnapshot model; // the model the reference came from
+        volatile long servingVersion;
+        final FeatureDistribution reference; // null if unknown
+        final FeatureDistribution buckets; // reference, or buckets around the scaling statistics
+        final Stripe[] stripes = new Stripe[stripeMask + 1];
+        final ArrayDeque<Totals> history = new ArrayDeque<>(); // scheduler thread only
+
+        Window(ModelSnapshot model) {
+            this.model = model;
+            this.servingVersion = model.getVersion();
+            this.reference = model.featureDistribution();
+            this.buckets = reference != null ? reference
+                : new FeatureDistribution(model.featureMeans(), model.featureStds(), new double[NUM_FEATURES][BUCKETS]);
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new Stripe();
+            }
+        }
+    }
+
+    private static final class Stripe {
+        final AtomicBoolean busy = new AtomicBoolean();
+        final Totals totals = new Totals();
+    }
+
+    // Running totals since the window started; plain fields, guarded by the stripe's busy flag
+    private static final class Totals {
+        long samples;
+        final long[] counts = new long[NUM_FEATURES * BUCKETS];
+        final double[] sums = new double[NUM_FEATURES];
+        final double[] sumSquares = new double[NUM_FEATURES];
+
+        void add(Totals other) {
+            samples += other.samples;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                sums[j] += other.sums[j];
+                sumSquares[j] += other.sumSquares[j];
+            }
+        }
+
+        Totals minus(Totals earlier) {
+            Totals delta = new Totals();
+            delta.samples = samples - earlier.samples;
+            for (int i = 0; i < counts.length; i++) {
+                delta.counts[i] = counts[i] - earlier.counts[i];
+            }
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                delta.sums[j] = sums[j] - earlier.sums[j];
+                delta.sumSquares[j] = sumSquares[j] - earlier.sumSquares[j];
+            }
+            return delta;
+        }
+    }
+
+    /**
+     * Drift of one feature. Scores are null until enough samples have been seen, and PSI
+     * and KS stay null for models without a training histogram.
+     */
+    public record FeatureDrift(String feature, Double psi, Double ks, Double meanShift, Double liveMean,
+                               Double liveStd, double trainingMean, double trainingStd, String status) {
+    }
+
+    public record Report(Instant evaluatedAt, long modelVersion, boolean referenceAvailable, long samples,
+                         long skippedSamples, String status, List<FeatureDrift> features) {
+    }
+
+    @Autowired
+    public DriftMonitor(CreditPredictionService predictionService, MeterRegistry registry,
+                        @Value("${drift.enabled:true}") boolean enabled,
+                        @Value("${drift.interval:30s}") Duration interval,
+                        @Value("${drift.window:15m}") Duration window,
+                        @Value("${drift.min-samples:500}") long minSamples) {
+        this.minSamples = minSamples;
+        this.historyLength = (int) Math.max(1, window.toMillis() / Math.max(1, interval.toMillis()));
+        this.stripeMask = Integer.highestOneBit(Math.max(4, 2 * Runtime.getRuntime().availableProcessors() - 1)) * 2 - 1;
+        this.window = new Window(predictionService.getModelSnapshot());
+        this.report = evaluate(this.window, new Totals());
+
+        for (int j = 0; j < NUM_FEATURES; j++) {
+            int feature = j;
+            String name = ModelFile.FEATURE_NAMES[j];
+            Gauge.builder("credit.drift.psi", this, monitor -> gaugeValue(monitor.report.features().get(feature).psi()))
+                .description("Population stability index of live traffic against the training data")
+                .tag("feature", name)
+                .register(registry);
+            Gauge.builder("credit.drift.ks", this, monitor -> gaugeValue(monitor.report.features().get(feature).ks()))
+                .description("Kolmogorov-Smirnov distance of live traffic against the training data (bucketed)")
+                .tag("feature", name)
+                .register(registry);
+            Gauge.builder("credit.drift.mean.shift", this, monitor -> gaugeValue(monitor.report.features().get(feature).meanShift()))
+                .description("Shift of the live mean from the training mean, in training standard deviations")
+                .tag("feature", name)
+                .register(registry);
+        }
+        Gauge.builder("credit.drift.samples", this, monitor -> monitor.report.samples())
+            .description("Live predictions in the current drift window")
+            .register(registry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "drift-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            predictionService.addModelChangeListener(this);
+            predictionService.setDriftMonitor(this);
+            scheduler.scheduleWithFixedDelay(this::refresh, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+            log.info("Drift monitor scoring the last {} s of traffic every {} s", window.toSeconds(),
+                interval.toSeconds());
+        }
+    }
+
+    /**
+     * Adds one applicant's raw features, {@code features[offset..offset+8)}.
+     * Called on the request path, so it never blocks.
+     */
+    void record(double[] features, int offset) {
+        Window current = window;
+        Stripe[] stripes = current.stripes;
+        // Fibonacci hashing spreads consecutive thread ids over the stripes
+        int index = (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 40) & stripeMask;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Stripe stripe = stripes[(index + attempt) & stripeMask];
+            if (stripe.busy.compareAndSet(false, true)) {
+                try {
+                    add(current.buckets, stripe.totals, features, offset);
+                } finally {
+                    stripe.busy.set(false);
+                }
+                return;
+            }
+        }
+        skipped.increment();
+    }
+
+    private static void add(FeatureDistribution buckets, Totals totals, double[] features, int offset) {
+        totals.samples++;
+        long[] counts = totals.counts;
+        double[] sums = totals.sums;
+        double[] sumSquares = totals.sumSquares;
+        for (int j = 0; j < NUM_FEATURES; j++) {
+            double value = features[offset + j];
+            counts[j * BUCKETS + buckets.bucket(j, value)]++;
+            sums[j] += value;
+            sumSquares[j] += value * value;
+        }
+    }
+
+    @Override
+    public void onModelChanged(ModelSnapshot previous, ModelSnapshot current) {
+        Window active = window;
+        if (sameReference(active, current)) {
+            // Online updates keep the base model's training data, so the traffic seen so far still counts
+            active.servingVersion = current.getVersion();
+            return;
+        }
+        // Traffic compared with the old training data says nothing about the new model's
+        Window fresh = new Window(current);
+        window = fresh;
+        report = evaluate(fresh, new Totals());
+    }
+
+    private static boolean sameReference(Window window, ModelSnapshot model) {
+        if (window.reference != null || model.featureDistribution() != null) {
+            return window.reference == model.featureDistribution();
+        }
+        // Without a histogram the buckets are laid out around the scaling statistics
+        return Arrays.equals(window.model.featureMeans(), model.featureMeans())
+            && Arrays.equals(window.model.featureStds(), model.featureStds());
+    }
+
+    public Report getReport() {
+        return report;
+    }
+
+    // Scheduler thread: merge the stripes and score the window
+    private void refresh() {
+        try {
+            Window current = window;
+            Totals cumulative = new Totals();
+            for (Stripe stripe : current.stripes) {
+                // A writer holds the flag for a few tens of nanoseconds at most
+                while (!stripe.busy.compareAndSet(false, true)) {
+                    Thread.onSpinWait();
+                }
+                try {
+                    cumulative.add(stripe.totals);
+                } finally {
+                    stripe.busy.set(false);
+                }
+            }
+            current.history.addLast(cumulative);
+            Totals start = current.history.size() > historyLength ? current.history.removeFirst() : new Totals();
+            if (window == current) {
+                report = evaluate(current, cumulative.minus(start));
+                logDrift(report);
+            }
+        } catch (RuntimeException e) {
+            log.error("Drift evaluation failed: {}", e.getMessage());
+        }
+    }
+
+    private Report evaluate(Window window, Totals totals) {
+        FeatureDistribution reference = window.reference;
+        boolean scored = totals.samples >= minSamples;
+        List<FeatureDrift> features = new ArrayList<>(NUM_FEATURES);
+        double maxPsi = Double.NaN;
+        for (int j = 0; j < NUM_FEATURES; j++) {
+            double trainingMean = window.model.featureMeans()[j];
+            double trainingStd = window.model.featureStds()[j];
+            double liveMean = Double.NaN;
+            double liveStd = Double.NaN;
+            double psi = Double.NaN;
+            double ks = Double.NaN;
+            double meanShift = Double.NaN;
+            if (totals.samples > 0) {
+                liveMean = totals.sums[j] / totals.samples;
+                liveStd = Math.sqrt(Math.max(0.0, totals.sumSquares[j] / totals.samples - liveMean * liveMean));
+            }
+            if (scored) {
+                meanShift = (liveMean - trainingMean) / trainingStd;
+                if (reference != null) {
+                    psi = 0.0;
+                    ks = 0.0;
+                    double liveCdf = 0.0;
+                    double referenceCdf = 0.0;
+                    for (int b = 0; b < BUCKETS; b++) {
+                        double live = (double) totals.counts[j * BUCKETS + b] / totals.samples;
+                        double expected = reference.fraction(j, b);
+                        liveCdf += live;
+                        referenceCdf += expected;
+                        ks = Math.max(ks, Math.abs(liveCdf - referenceCdf));
+                        live = Math.max(live, MIN_FRACTION);
+                        expected = Math.max(expected, MIN_FRACTION);
+                        psi += (live - expected) * Math.log(live / expected);
+                    }
+                    maxPsi = Double.isNaN(maxPsi) ? psi : Math.max(maxPsi, psi);
+                }
+            }
+            features.add(new FeatureDrift(ModelFile.FEATURE_NAMES[j], orNull(psi), orNull(ks), orNull(meanShift),
+                orNull(liveMean), orNull(liveStd), trainingMean, trainingStd,
+                status(scored, reference != null, psi)));
+        }
+        return new Report(Instant.now(), window.servingVersion, reference != null, totals.samples,
+            skipped.sum(), status(scored, reference != null, maxPsi), features);
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static double gaugeValue(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static String status(boolean scored, boolean referenceAvailable, double psi) {
+        if (!scored) {
+            return "insufficient-data";
+        }
+        if (!referenceAvailable) {
+            return "no-reference";
+        }
+        return psi < MODERATE_PSI ? "stable" : psi < SIGNIFICANT_PSI ? "moderate" : "significant";
+    }
+
+    private void logDrift(Report report) {
+        if (!"significant".equals(report.status())) {
+            return;
+        }
+        Map<String, Double> drifted = new LinkedHashMap<>();
+        for (FeatureDrift feature : report.features()) {
+            if (feature.psi() != null && feature.psi() >= SIGNIFICANT_PSI) {
+                drifted.put(feature.feature(), Math.round(feature.psi() * 1000) / 1000.0);
+            }
+        }
+        log.warn("Significant input drift against model version {} (PSI by feature): {}", report.modelVersion(),
+            drifted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
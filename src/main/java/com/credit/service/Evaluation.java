@@ -0,0 +1,111 @@
+package com.credit.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State of one asynchronous cross-validated hyperparameter search, updated by the
+ * evaluation thread and read by status requests.
+ */
+@Getter
+public class Evaluation {
+    /**
+     * Cross-validated scores of one configuration. {@code confusion[actual][predicted]}
+     * counts every row once, from the fold in which it was held out.
+     */
+    public record ConfigResult(TrainingConfig config, double accuracy, double accuracyStdDev, double logLoss,
+                               double[] foldAccuracy, long[][] confusion, long wallClockMillis,
+                               long trainingMillis) {
+    }
+
+    private final String id;
+    private final String description;
+    private final int folds;
+    private final int configurations;
+    private final Instant submittedAt = Instant.now();
+    private volatile TrainingJob.Status status = TrainingJob.Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile long rows;
+    private volatile List<ConfigResult> results = List.of();
+    private volatile ConfigResult best;
+    private volatile long promotedVersion;
+    private volatile String error;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger fitsCompleted = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    private volatile boolean cancelRequested;
+    @Getter(AccessLevel.NONE)
+    private volatile Future<?> future;
+
+    Evaluation(String id, String description, int folds, int configurations) {
+        this.id = id;
+        this.description = description;
+        this.folds = folds;
+        this.configurations = configurations;
+    }
+
+    public int getFitsCompleted() {
+        return fitsCompleted.get();
+    }
+
+    public int getFitsTotal() {
+        return folds * configurations;
+    }
+
+    @JsonIgnore
+    public boolean isCancelled() {
+        return cancelRequested;
+    }
+
+    void markRunning(long rows) {
+        this.rows = rows;
+        startedAt = Instant.now();
+        status = TrainingJob.Status.RUNNING;
+    }
+
+    void markFinished(TrainingJob.Status finalStatus, String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+
+    void fitCompleted() {
+        fitsCompleted.incrementAndGet();
+    }
+
+    // Results are kept ranked by log-loss, best first
+    void addResult(ConfigResult result) {
+        List<ConfigResult> ranked = new ArrayList<>(results);
+        ranked.add(result);
+        ranked.sort(Comparator.comparingDouble(ConfigResult::logLoss));
+        results = Collections.unmodifiableList(ranked);
+        best = ranked.get(0);
+    }
+
+    void setPromotedVersion(long promotedVersion) {
+        this.promotedVersion = promotedVersion;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    Future<?> future() {
+        return future;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+}
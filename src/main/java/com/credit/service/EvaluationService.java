@@ -0,0 +1,386 @@
+package com.credit.service;
+
+import com.credit.model.EvaluationRequest;
+import com.credit.model.PredictionResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * k-fold cross-validation and grid or random hyperparameter search.
+ *
+ * Every (configuration, fold) pair is an independent single-threaded fit, and the fits
+ * run side by side on a worker pool limited to the CPU budget, which uses the cores far
+ * better than running one multi-threaded fit after another on small data sets. All
+ * fits read the same data source through {@link FoldView}s, so no fold is ever copied.
+ * Scaling statistics are fitted on the training rows only, so nothing leaks from the
+ * held-out fold.
+ */
+@Slf4j
+@Service
+public class EvaluationService {
+    private static final int MAX_RETAINED_EVALUATIONS = 20;
+    private static final int MAX_FOLDS = 20;
+    private static final int SCORING_BLOCK = BatchScoringKernel.BLOCK_SIZE;
+
+    private final CreditPredictionService predictionService;
+    private final TrainingConfig defaults;
+    private final int sampleSize;
+    private final int maxConfigurations;
+    private final int threads;
+    private final Path dataDir;
+    private final ThreadPoolExecutor runner;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, Evaluation> evaluations = new ConcurrentHashMap<>();
+
+    public EvaluationService(CreditPredictionService predictionService,
+                             ModelTrainingService modelTrainingService,
+                             @Value("${model.training.sample-size:1000}") int sampleSize,
+                             @Value("${model.evaluation.max-configurations:100}") int maxConfigurations,
+                             @Value("${model.evaluation.queue-capacity:4}") int queueCapacity,
+                             @Value("${model.evaluation.threads:0}") int threads,
+                             @Value("${model.training.data-dir:data}") String dataDir) {
+        this.predictionService = predictionService;
+        this.defaults = modelTrainingService.getTrainingConfig();
+        this.sampleSize = sampleSize;
+        this.maxConfigurations = maxConfigurations;
+        // Default to half the cores, like training jobs, so serving keeps the other half
+        this.threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.dataDir = Paths.get(dataDir);
+
+        AtomicInteger workerCount = new AtomicInteger();
+        this.runner = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "evaluation-job");
+                thread.setDaemon(true);
+                return thread;
+            });
+        // Only the single runner submits here, at most folds * max-configurations fits at a time
+        this.workers = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "evaluation-worker-" + workerCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        log.info("Evaluations: {} worker threads, at most {} configurations", this.threads, maxConfigurations);
+    }
+
+    /**
+     * Validates the request and queues the search. Throws {@link IllegalArgumentException}
+     * for an invalid search space or a path outside {@code model.training.data-dir}, and {@link java.util.concurrent.RejectedExecutionException}
+     * when the queue is full.
+     */
+    public Evaluation submit(EvaluationRequest request) {
+        if (request.getFolds() < 2 || request.getFolds() > MAX_FOLDS) {
+            throw new IllegalArgumentException("folds must be between 2 and " + MAX_FOLDS);
+        }
+        long seed = request.getSeed() != null ? request.getSeed()
+            : defaults.getSeed() != null ? defaults.getSeed() : new SplittableRandom().nextLong();
+        List<TrainingConfig> configs = searchSpace(request, seed);
+        Path dataFile = request.getPath() != null ? ConfinedPaths.resolve(dataDir, request.getPath()) : null;
+        String source = dataFile != null ? "file " + dataFile : "sample data";
+        Evaluation evaluation = new Evaluation(UUID.randomUUID().toString(),
+            request.getSearch() + " search over " + source, request.getFolds(), configs.size());
+
+        evictFinishedEvaluations();
+        evaluations.put(evaluation.getId(), evaluation);
+        try {
+            evaluation.setFuture(runner.submit(() -> run(evaluation, request, dataFile, configs, seed)));
+        } catch (RuntimeException e) {
+            evaluations.remove(evaluation.getId());
+            throw e;
+        }
+        log.info("Submitted evaluation {} ({} configurations, {} folds)", evaluation.getId(), configs.size(),
+            request.getFolds());
+        return evaluation;
+    }
+
+    public Optional<Evaluation> getEvaluation(String id) {
+        return Optional.ofNullable(evaluations.get(id));
+    }
+
+    public List<Evaluation> getEvaluations() {
+        List<Evaluation> result = new ArrayList<>(evaluations.values());
+        result.sort(Comparator.comparing(Evaluation::getSubmittedAt).reversed());
+        return result;
+    }
+
+    public Optional<Evaluation> cancel(String id) {
+        Evaluation evaluation = evaluations.get(id);
+        if (evaluation == null) {
+            return Optional.empty();
+        }
+        evaluation.requestCancel();
+        // Running fits stop at their next mini-batch
+        if (evaluation.getStatus() == TrainingJob.Status.QUEUED && evaluation.future() != null
+            && evaluation.future().cancel(false)) {
+            evaluation.markFinished(TrainingJob.Status.CANCELLED, null);
+        }
+        return Optional.of(evaluation);
+    }
+
+    private List<TrainingConfig> searchSpace(EvaluationRequest request, long seed) {
+        List<Double> learningRates = orDefault(request.getLearningRates(), defaults.getLearningRate());
+        List<Integer> epochs = orDefault(request.getEpochs(), defaults.getEpochs());
+        List<Double> lambdas = orDefault(request.getLambdas(), defaults.getLambda());
+        List<Integer> batchSizes = orDefault(request.getBatchSizes(), defaults.getBatchSize());
+        if (learningRates.stream().anyMatch(v -> !(v > 0)) || epochs.stream().anyMatch(v -> v < 1)
+            || lambdas.stream().anyMatch(v -> !(v >= 0)) || batchSizes.stream().anyMatch(v -> v < 0)) {
+            throw new IllegalArgumentException("Learning rates and epochs must be positive, lambdas and batch sizes non-negative");
+        }
+
+        // Every fit of a search starts from the same initial weights, so configurations compare fairly
+        TrainingConfig base = defaults.toBuilder().parallelism(1).seed(seed).build();
+        List<TrainingConfig> configs = new ArrayList<>();
+        switch (String.valueOf(request.getSearch())) {
+            case "grid" -> {
+                long size = (long) learningRates.size() * epochs.size() * lambdas.size() * batchSizes.size();
+                checkSize(size);
+                for (double learningRate : learningRates) {
+                    for (int epochCount : epochs) {
+                        for (double lambda : lambdas) {
+                            for (int batchSize : batchSizes) {
+                                configs.add(base.toBuilder().learningRate(learningRate).epochs(epochCount)
+                                    .lambda(lambda).batchSize(batchSize).build());
+                            }
+                        }
+                    }
+                }
+            }
+            case "random" -> {
+                checkSize(request.getTrials());
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < request.getTrials(); i++) {
+                    configs.add(base.toBuilder()
+                        .learningRate(logUniform(random, learningRates))
+                        .epochs(random.nextInt((int) min(epochs), (int) max(epochs) + 1))
+                        .lambda(logUniform(random, lambdas))
+                        .batchSize(batchSizes.get(random.nextInt(batchSizes.size())))
+                        .build());
+                }
+            }
+            default -> throw new IllegalArgumentException("search must be grid or random");
+        }
+        return configs;
+    }
+
+    private void checkSize(long configurations) {
+        if (configurations < 1 || configurations > maxConfigurations) {
+            throw new IllegalArgumentException("Search has " + configurations + " configurations, must be between 1 and "
+                + maxConfigurations);
+        }
+    }
+
+    private static <T> List<T> orDefault(List<T> values, T fallback) {
+        return values == null || values.isEmpty() ? List.of(fallback) : values;
+    }
+
+    private static double min(List<? extends Number> values) {
+        return values.stream().mapToDouble(Number::doubleValue).min().orElseThrow();
+    }
+
+    private static double max(List<? extends Number> values) {
+        return values.stream().mapToDouble(Number::doubleValue).max().orElseThrow();
+    }
+
+    // Uniform in log space, or plain uniform when the range starts at zero
+    private static double logUniform(SplittableRandom random, List<Double> values) {
+        double low = min(values);
+        double high = max(values);
+        if (low == high) {
+            return low;
+        }
+        if (low <= 0) {
+            return random.nextDouble(low, high);
+        }
+        return Math.exp(random.nextDouble(Math.log(low), Math.log(high)));
+    }
+
+    private void run(Evaluation evaluation, EvaluationRequest request, Path dataFile, List<TrainingConfig> configs,
+                     long seed) {
+        if (evaluation.isCancelled()) {
+            evaluation.markFinished(TrainingJob.Status.CANCELLED, null);
+            return;
+        }
+        List<Future<FoldResult>> fits = new ArrayList<>();
+        try {
+            TrainingDataSource data = dataFile != null
+                ? ColumnarTrainingFile.open(dataFile)
+                : SyntheticDataGenerator.generate(request.getRows() != null ? request.getRows() : sampleSize, seed,
+                    threads);
+            int folds = evaluation.getFolds();
+            if (data.size() < folds) {
+                throw new IllegalArgumentException("Need at least " + folds + " rows, have " + data.size());
+            }
+            evaluation.markRunning(data.size());
+
+            TrainingMonitor monitor = new TrainingMonitor() {
+                @Override
+                public boolean isCancelled() {
+                    return evaluation.isCancelled();
+                }
+            };
+            for (TrainingConfig config : configs) {
+                for (int fold = 0; fold < folds; fold++) {
+                    int f = fold;
+                    fits.add(workers.submit(() -> fitFold(evaluation, data, folds, f, config, monitor)));
+                }
+            }
+            // Configurations finish roughly in submission order, so results appear progressively
+            for (int i = 0; i < configs.size(); i++) {
+                evaluation.addResult(aggregate(configs.get(i), fits.subList(i * folds, (i + 1) * folds)));
+            }
+
+            Evaluation.ConfigResult best = evaluation.getBest();
+            log.info("Evaluation {} done, best configuration {} with accuracy {} and log-loss {}",
+                evaluation.getId(), best.config(), best.accuracy(), best.logLoss());
+            if (request.isPromote()) {
+                TrainingConfig config = best.config().toBuilder().parallelism(threads).build();
+                ModelSnapshot promoted = predictionService.trainModel(data, config, monitor, true);
+                evaluation.setPromotedVersion(promoted.getVersion());
+            }
+            evaluation.markFinished(TrainingJob.Status.COMPLETED, null);
+        } catch (CancellationException e) {
+            evaluation.markFinished(TrainingJob.Status.CANCELLED, null);
+            log.info("Evaluation {} cancelled", evaluation.getId());
+        } catch (Exception e) {
+            evaluation.requestCancel(); // stops the fits that are still running
+            String message = e instanceof ExecutionException ? e.getCause().getMessage() : e.getMessage();
+            evaluation.markFinished(TrainingJob.Status.FAILED, message);
+            log.error("Evaluation {} failed: {}", evaluation.getId(), message);
+        } finally {
+            fits.forEach(fit -> fit.cancel(true));
+        }
+    }
+
+    private record FoldResult(long correct, long rows, double loss, long[][] confusion, long startNanos,
+                              long endNanos) {
+    }
+
+    private FoldResult fitFold(Evaluation evaluation, TrainingDataSource data, int folds, int fold,
+                               TrainingConfig config, TrainingMonitor monitor) {
+        long start = System.nanoTime();
+        ModelSnapshot model = predictionService.fit(FoldView.training(data, folds, fold), config, monitor, () -> 0L);
+        FoldResult result = score(model, FoldView.validation(data, folds, fold), start);
+        evaluation.fitCompleted();
+        return result;
+    }
+
+    // Scores the held-out rows with the same kernel that serves batch predictions
+    private static FoldResult score(ModelSnapshot model, TrainingDataSource validation, long startNanos) {
+        int numClasses = PredictionResult.NUM_CLASSES;
+        double[][] columns = new double[TrainingDataSource.NUM_FEATURES][SCORING_BLOCK];
+        int[] labels = new int[SCORING_BLOCK];
+        double[][] logits = new double[numClasses][SCORING_BLOCK];
+        double[][] probs = new double[SCORING_BLOCK][numClasses];
+        long[][] confusion = new long[numClasses][numClasses];
+        long correct = 0;
+        double loss = 0.0;
+
+        long size = validation.size();
+        for (long start = 0; start < size; start += SCORING_BLOCK) {
+            int rows = (int) Math.min(SCORING_BLOCK, size - start);
+            validation.read(start, rows, columns, labels);
+            BatchScoringKernel.score(model.compiled(), columns, rows, logits, probs, 0);
+            for (int r = 0; r < rows; r++) {
+                double[] p = probs[r];
+                int predicted = 0;
+                for (int c = 1; c < numClasses; c++) {
+                    if (p[c] > p[predicted]) {
+                        predicted = c;
+                    }
+                }
+                int actual = labels[r];
+                confusion[actual][predicted]++;
+                if (predicted == actual) {
+                    correct++;
+                }
+                loss -= Math.log(p[actual] + 1e-15); // same epsilon as the training loss
+            }
+        }
+        return new FoldResult(correct, size, loss, confusion, startNanos, System.nanoTime());
+    }
+
+    private static Evaluation.ConfigResult aggregate(TrainingConfig config, List<Future<FoldResult>> fits)
+        throws InterruptedException, ExecutionException {
+        int numClasses = PredictionResult.NUM_CLASSES;
+        long[][] confusion = new long[numClasses][numClasses];
+        double[] foldAccuracy = new double[fits.size()];
+        long correct = 0;
+        long rows = 0;
+        double loss = 0.0;
+        long firstStart = Long.MAX_VALUE;
+        long lastEnd = Long.MIN_VALUE;
+        long trainingNanos = 0;
+        for (int f = 0; f < fits.size(); f++) {
+            FoldResult fold;
+            try {
+                fold = fits.get(f).get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof CancellationException cancelled) {
+                    throw cancelled;
+                }
+                throw e;
+            }
+            foldAccuracy[f] = fold.rows() > 0 ? (double) fold.correct() / fold.rows() : Double.NaN;
+            correct += fold.correct();
+            rows += fold.rows();
+            loss += fold.loss();
+            for (int a = 0; a < numClasses; a++) {
+                for (int p = 0; p < numClasses; p++) {
+                    confusion[a][p] += fold.confusion()[a][p];
+                }
+            }
+            firstStart = Math.min(firstStart, fold.startNanos());
+            lastEnd = Math.max(lastEnd, fold.endNanos());
+            trainingNanos += fold.endNanos() - fold.startNanos();
+        }
+
+        double accuracy = (double) correct / rows;
+        double variance = 0.0;
+        for (double value : foldAccuracy) {
+            variance += (value - accuracy) * (value - accuracy);
+        }
+        double stdDev = Math.sqrt(variance / foldAccuracy.length);
+        return new Evaluation.ConfigResult(config, accuracy, stdDev, loss / rows, foldAccuracy, confusion,
+            TimeUnit.NANOSECONDS.toMillis(lastEnd - firstStart), TimeUnit.NANOSECONDS.toMillis(trainingNanos));
+    }
+
+    private void evictFinishedEvaluations() {
+        if (evaluations.size() < MAX_RETAINED_EVALUATIONS) {
+            return;
+        }
+        evaluations.values().stream()
+            .filter(evaluation -> evaluation.getFinishedAt() != null)
+            .sorted(Comparator.comparing(Evaluation::getFinishedAt))
+            .limit(evaluations.size() - MAX_RETAINED_EVALUATIONS + 1)
+            .forEach(evaluation -> evaluations.remove(evaluation.getId()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evaluations.values().forEach(Evaluation::requestCancel);
+        runner.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,291 @@
+package com.credit.service;
+
+import com.credit.model.CreditData;
+import com.credit.model.PredictionResult;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates LLM-written explanations off the request thread. A prediction gets an
+ * explanation id right away; the text is fetched later by id or posted to a callback.
+ *
+ * Calls to the LLM go through a bounded worker pool with a per-call timeout and a
+ * circuit breaker. Identical profiles scored by the same model share one in-flight
+ * call. Whenever the LLM cannot answer (timeout, error, open circuit, full queue) the
+ * template explanation from {@link GPTService} is used instead.
+ */
+@Slf4j
+@Service
+public class ExplanationService {
+    private static final String SYSTEM_PROMPT =
+        "You are a credit analyst. Explain predictions plainly and do not invent facts.";
+
+    public enum Status { PENDING, COMPLETED, FALLBACK }
+
+    private final ChatCompletionClient client;
+    private final GPTService gptService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean callbacksEnabled;
+    private final int maxRetained;
+    private final ThreadPoolExecutor executor;
+    private final CircuitBreaker circuitBreaker;
+    private final HttpClient callbackClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+    private final Map<CoalescingKey, Explanation> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Explanation> explanations = new LinkedHashMap<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final Map<String, LongAdder> fallbacks = new ConcurrentHashMap<>();
+
+    private record CoalescingKey(PredictionCache.Key features, long modelVersion) {
+    }
+
+    /**
+     * One explanation request. Coalesced requests share the same instance and id.
+     */
+    @Getter
+    public static final class Explanation {
+        private final String id = UUID.randomUUID().toString();
+        private final Instant createdAt = Instant.now();
+        private volatile Status status = Status.PENDING;
+        private volatile String text;
+        private volatile String source;
+        private volatile String fallbackReason;
+        private volatile Instant completedAt;
+
+        @Getter(AccessLevel.NONE)
+        private final CoalescingKey key;
+        @Getter(AccessLevel.NONE)
+        private final List<String> callbackUrls = new CopyOnWriteArrayList<>();
+        @Getter(AccessLevel.NONE)
+        private final CompletableFuture<Explanation> done = new CompletableFuture<>();
+
+        private Explanation(CoalescingKey key) {
+            this.key = key;
+        }
+
+        /**
+         * Completes once the explanation is done. Cancelling the returned future does
+         * not stop the explanation from being generated.
+         */
+        public CompletableFuture<Explanation> completion() {
+            return done.copy();
+        }
+
+        @JsonIgnore
+        public boolean isDone() {
+            return status != Status.PENDING;
+        }
+    }
+
+    public ExplanationService(ChatCompletionClient client, GPTService gptService, ObjectMapper objectMapper,
+                              @Value("${llm.explanations.enabled:false}") boolean enabled,
+                              @Value("${llm.explanations.max-concurrent:4}") int maxConcurrent,
+                              @Value("${llm.explanations.queue-capacity:256}") int queueCapacity,
+                              @Value("${llm.explanations.retained:10000}") int maxRetained,
+                              @Value("${llm.explanations.callbacks.enabled:false}") boolean callbacksEnabled,
+                              @Value("${llm.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                              @Value("${llm.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        this.client = client;
+        this.gptService = gptService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.callbacksEnabled = callbacksEnabled;
+        this.maxRetained = maxRetained;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "llm-explanation-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        if (enabled) {
+            log.info("LLM explanations enabled via {} with {} concurrent calls", client.getEndpoint(), maxConcurrent);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts (or joins) the explanation for a prediction and returns immediately.
+     * {@code callbackUrl}, if given and callbacks are enabled, receives the finished
+     * explanation as a JSON POST.
+     */
+    public Explanation submit(CreditData creditData, PredictionResult result, String callbackUrl) {
+        submitted.increment();
+        PredictionCache.Key features = PredictionCache.Key.of(creditData);
+        CoalescingKey key = features != null ? new CoalescingKey(features, result.getModelVersion()) : null;
+
+        Explanation explanation = new Explanation(key);
+        if (key != null) {
+            Explanation existing = inFlight.putIfAbsent(key, explanation);
+            if (existing != null) {
+                coalesced.increment();
+                addCallback(existing, callbackUrl);
+                return existing;
+            }
+        }
+        retain(explanation);
+        addCallback(explanation, callbackUrl);
+
+        double[] probabilities = result.getProbabilities().clone();
+        try {
+            executor.execute(() -> generate(explanation, creditData, probabilities));
+        } catch (RejectedExecutionException e) {
+            fallback(explanation, creditData, probabilities, "overloaded");
+        }
+        return explanation;
+    }
+
+    public Optional<Explanation> getExplanation(String id) {
+        synchronized (explanations) {
+            return Optional.ofNullable(explanations.get(id));
+        }
+    }
+
+    private void generate(Explanation explanation, CreditData creditData, double[] probabilities) {
+        if (!circuitBreaker.tryAcquire()) {
+            fallback(explanation, creditData, probabilities, "circuit_open");
+            return;
+        }
+        try {
+            String text = client.complete(SYSTEM_PROMPT, gptService.buildExplanationPrompt(creditData, probabilities));
+            circuitBreaker.onSuccess();
+            completed.increment();
+            finish(explanation, Status.COMPLETED, text, "llm", null);
+        } catch (HttpTimeoutException e) {
+            circuitBreaker.onFailure();
+            fallback(explanation, creditData, probabilities, "timeout");
+        } catch (InterruptedException e) {
+            // A half-open probe must be released, or the circuit would refuse calls forever
+            circuitBreaker.onAbandoned();
+            fallback(explanation, creditData, probabilities, "interrupted");
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            circuitBreaker.onFailure();
+            log.warn("LLM explanation failed: {}", e.getMessage());
+            fallback(explanation, creditData, probabilities, "error");
+        }
+    }
+
+    private void fallback(Explanation explanation, CreditData creditData, double[] probabilities, String reason) {
+        fallbacks.computeIfAbsent(reason, r -> new LongAdder()).increment();
+        finish(explanation, Status.FALLBACK, gptService.getCreditExplanation(creditData, probabilities), "template",
+            reason);
+    }
+
+    private void finish(Explanation explanation, Status status, String text, String source, String fallbackReason) {
+        explanation.text = text;
+        explanation.source = source;
+        explanation.fallbackReason = fallbackReason;
+        explanation.completedAt = Instant.now();
+        explanation.status = status;
+        explanation.done.complete(explanation);
+        if (explanation.key != null) {
+            inFlight.remove(explanation.key, explanation);
+        }
+        for (String callbackUrl : explanation.callbackUrls) {
+            postCallback(explanation, callbackUrl);
+        }
+    }
+
+    private void addCallback(Explanation explanation, String callbackUrl) {
+        if (callbackUrl == null || callbackUrl.isBlank()) {
+            return;
+        }
+        if (!callbacksEnabled) {
+            log.debug("Ignoring callback URL because llm.explanations.callbacks.enabled is false");
+            return;
+        }
+        explanation.callbackUrls.add(callbackUrl);
+        // Finished between the lookup and registration; deliver now (duplicates are possible)
+        if (explanation.isDone()) {
+            postCallback(explanation, callbackUrl);
+        }
+    }
+
+    private void postCallback(Explanation explanation, String callbackUrl) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(callbackUrl))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(explanation)))
+                .build();
+            callbackClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.warn("Explanation callback to {} failed: {}", callbackUrl, error.getMessage());
+                    }
+                });
+        } catch (Exception e) {
+            log.warn("Explanation callback to {} failed: {}", callbackUrl, e.getMessage());
+        }
+    }
+
+    private void retain(Explanation explanation) {
+        synchronized (explanations) {
+            explanations.put(explanation.id, explanation);
+            while (explanations.size() > maxRetained) {
+                String oldest = explanations.keySet().iterator().next();
+                explanations.remove(oldest);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("endpoint", client.getEndpoint().toString());
+        stats.put("circuitState", circuitBreaker.getState());
+        stats.put("circuitOpened", circuitBreaker.getTimesOpened());
+        stats.put("submitted", submitted.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("completed", completed.sum());
+        Map<String, Long> fallbackCounts = new LinkedHashMap<>();
+        fallbacks.forEach((reason, count) -> fallbackCounts.put(reason, count.sum()));
+        stats.put("fallbacks", fallbackCounts);
+        stats.put("inFlight", inFlight.size());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,84 @@
+package com.credit.service;
+
+/**
+ * Fixed-bucket histogram of every feature over a model's training data, the reference
+ * that live traffic is compared against for drift.
+ *
+ * Buckets are half a standard deviation wide, from 3.5 standard deviations below the
+ * training mean to 3.5 above, plus one open bucket on each side. The bucket of a value
+ * is therefore a few arithmetic operations, cheap enough for the request path.
+ */
+final class FeatureDistribution {
+    static final int NUM_FEATURES = TrainingDataSource.NUM_FEATURES;
+    static final int BUCKETS = 16;
+    private static final double Z_MIN = -3.5;
+    private static final double Z_STEP = 0.5;
+
+    private final double[] centers;
+    private final double[] inverseScales;
+    private final double[] scales;
+    private final double[][] fractions; // [feature][bucket], each row sums to 1
+
+    FeatureDistribution(double[] centers, double[] scales, double[][] fractions) {
+        this.centers = centers.clone();
+        this.scales = scales.clone();
+        this.inverseScales = new double[NUM_FEATURES];
+        this.fractions = new double[NUM_FEATURES][];
+        for (int j = 0; j < NUM_FEATURES; j++) {
+            inverseScales[j] = 1.0 / (scales[j] * Z_STEP);
+            this.fractions[j] = fractions[j].clone();
+        }
+    }
+
+    /**
+     * Histograms {@code source} with buckets placed around the given training means and
+     * standard deviations.
+     */
+    static FeatureDistribution of(TrainingDataSource source, double[] means, double[] stds) {
+        FeatureDistribution buckets = new FeatureDistribution(means, stds, new double[NUM_FEATURES][BUCKETS]);
+        long[][] counts = new long[NUM_FEATURES][BUCKETS];
+        long numSamples = source.size();
+        int blockSize = ParallelTrainer.BLOCK_SIZE;
+        double[][] columns = new double[NUM_FEATURES][blockSize];
+        int[] labels = new int[blockSize];
+        for (long start = 0; start < numSamples; start += blockSize) {
+            int rows = (int) Math.min(blockSize, numSamples - start);
+            source.read(start, rows, columns, labels);
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                double[] column = columns[j];
+                long[] featureCounts = counts[j];
+                for (int r = 0; r < rows; r++) {
+                    featureCounts[buckets.bucket(j, column[r])]++;
+                }
+            }
+        }
+        double[][] fractions = new double[NUM_FEATURES][BUCKETS];
+        for (int j = 0; j < NUM_FEATURES; j++) {
+            for (int b = 0; b < BUCKETS; b++) {
+                fractions[j][b] = numSamples > 0 ? (double) counts[j][b] / numSamples : 0.0;
+            }
+        }
+        return new FeatureDistribution(means, stds, fractions);
+    }
+
+    int bucket(int feature, double value) {
+        double position = (value - centers[feature]) * inverseScales[feature] - Z_MIN / Z_STEP;
+        // Also sends NaN to the first bucket
+        if (!(position >= 0)) {
+            return 0;
+        }
+        return position >= BUCKETS - 2 ? BUCKETS - 1 : (int) position + 1;
+    }
+
+    double center(int feature) {
+        return centers[feature];
+    }
+
+    double scale(int feature) {
+        return scales[feature];
+    }
+
+    double fraction(int feature, int bucket) {
+        return fractions[feature][bucket];
+    }
+}
@@ -0,0 +1,86 @@
+package com.credit.service;
+
+/**
+ * One side of a k-fold split over another {@link TrainingDataSource}, without copying
+ * any rows. Row {@code r} of the underlying source belongs to fold {@code r % k}, so
+ * every fold samples the whole file evenly even when rows are ordered by time or class.
+ * The validation view of fold {@code f} holds exactly the rows of fold {@code f}; the
+ * training view holds all the others.
+ *
+ * Reads go through a per-thread scratch block and are as safe to run concurrently as
+ * reads of the underlying source.
+ */
+final class FoldView implements TrainingDataSource {
+    private static final int SCRATCH_ROWS = ParallelTrainer.BLOCK_SIZE;
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final TrainingDataSource source;
+    private final int folds;
+    private final int fold;
+    private final boolean validation;
+    private final long size;
+
+    private static final class Scratch {
+        final double[][] columns = new double[NUM_FEATURES][SCRATCH_ROWS];
+        final int[] labels = new int[SCRATCH_ROWS];
+    }
+
+    private FoldView(TrainingDataSource source, int folds, int fold, boolean validation) {
+        if (folds < 2 || fold < 0 || fold >= folds) {
+            throw new IllegalArgumentException("Fold " + fold + " of " + folds + " is not a valid split");
+        }
+        this.source = source;
+        this.folds = folds;
+        this.fold = fold;
+        this.validation = validation;
+        long foldSize = source.size() > fold ? (source.size() - fold + folds - 1) / folds : 0;
+        this.size = validation ? foldSize : source.size() - foldSize;
+    }
+
+    static FoldView training(TrainingDataSource source, int folds, int fold) {
+        return new FoldView(source, folds, fold, false);
+    }
+
+    static FoldView validation(TrainingDataSource source, int folds, int fold) {
+        return new FoldView(source, folds, fold, true);
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void read(long fromRow, int count, double[][] columns, int[] labels) {
+        if (count == 0) {
+            return;
+        }
+        Scratch scratch = SCRATCH.get();
+        long row = toSourceRow(fromRow);
+        long end = toSourceRow(fromRow + count - 1) + 1;
+        int done = 0;
+        while (row < end) {
+            int rows = (int) Math.min(SCRATCH_ROWS, end - row);
+            source.read(row, rows, scratch.columns, scratch.labels);
+            for (int r = 0; r < rows; r++) {
+                if (((row + r) % folds == fold) == validation) {
+                    for (int j = 0; j < NUM_FEATURES; j++) {
+                        columns[j][done] = scratch.columns[j][r];
+                    }
+                    labels[done++] = scratch.labels[r];
+                }
+            }
+            row += rows;
+        }
+    }
+
+    // Position in the underlying source of row {@code index} of this view
+    private long toSourceRow(long index) {
+        if (validation) {
+            return index * folds + fold;
+        }
+        long lap = index / (folds - 1);
+        long offset = index % (folds - 1);
+        return lap * folds + (offset >= fold ? offset + 1 : offset);
+    }
+}
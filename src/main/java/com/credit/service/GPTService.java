@@ -51,6 +51,27 @@ public class GPTService {
         );
     }
 
+    // Prompt for an LLM-written explanation; the template above is the fallback
+    public String buildExplanationPrompt(CreditData creditData, double[] probabilities) {
+        return String.format(
+            "Explain this credit eligibility prediction to the applicant in three or four sentences.\n" +
+            "Age of credit: %.1f years, FICO score: %d, missed payments: %d, derogatory marks: %d, " +
+            "total accounts: %d, recent inquiries: %d, credit limit: $%.0f, income: $%.0f.\n" +
+            "Predicted eligibility: Low %.1f%%, Medium %.1f%%, High %.1f%%.",
+            creditData.getAgeOfCredit(),
+            creditData.getFicoScore(),
+            creditData.getMissedPayments(),
+            creditData.getDerogatoryMarks(),
+            creditData.getTotalAccounts(),
+            creditData.getCreditInquiries(),
+            creditData.getCreditLimit(),
+            creditData.getIncome(),
+            probabilities[0] * 100,
+            probabilities[1] * 100,
+            probabilities[2] * 100
+        );
+    }
+
     public String getCardRecommendations(CreditData creditData, double[] probabilities) {
         // Provide default recommendations without calling OpenAI API
         if (probabilities[2] > 0.5) { // High probability
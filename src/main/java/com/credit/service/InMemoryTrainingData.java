@@ -0,0 +1,38 @@
+package com.credit.service;
+
+import java.util.List;
+
+/**
+ * Adapts the in-heap feature rows used by {@link CreditPredictionService#trainModel(List, List)}
+ * (bias in column 0, eight features after it) to a {@link TrainingDataSource}.
+ */
+final class InMemoryTrainingData implements TrainingDataSource {
+    private final List<double[]> features;
+    private final List<Integer> labels;
+
+    InMemoryTrainingData(List<double[]> features, List<Integer> labels) {
+        if (features.size() != labels.size()) {
+            throw new IllegalArgumentException("Features and labels differ in size: "
+                + features.size() + " vs " + labels.size());
+        }
+        this.features = features;
+        this.labels = labels;
+    }
+
+    @Override
+    public long size() {
+        return features.size();
+    }
+
+    @Override
+    public void read(long fromRow, int count, double[][] columns, int[] labels) {
+        int from = (int) fromRow;
+        for (int r = 0; r < count; r++) {
+            double[] feature = features.get(from + r);
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                columns[j][r] = feature[j + 1];
+            }
+            labels[r] = this.labels.get(from + r);
+        }
+    }
+}
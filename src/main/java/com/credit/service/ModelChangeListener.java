@@ -0,0 +1,9 @@
+package com.credit.service;
+
+/**
+ * Notified synchronously after a new model snapshot starts serving.
+ */
+@FunctionalInterface
+public interface ModelChangeListener {
+    void onModelChanged(ModelSnapshot previous, ModelSnapshot current);
+}
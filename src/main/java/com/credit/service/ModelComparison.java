@@ -0,0 +1,105 @@
+package com.credit.service;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running comparison of a candidate model against the production model it was
+ * scored alongside. All counters are lock-free so shadow workers and request
+ * threads can update them concurrently.
+ */
+public class ModelComparison {
+    private final String candidate;
+    private final LongAdder routedRequests = new LongAdder();
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder agreements = new LongAdder();
+    private final LongAdder droppedShadowRequests = new LongAdder();
+    private final DoubleAdder probabilityDeltaSum = new DoubleAdder();
+    // Non-negative doubles keep their order as raw long bits, so max works on the bits
+    private final LongAccumulator maxProbabilityDeltaBits = new LongAccumulator(Math::max, 0L);
+    private final LongAdder latencySamples = new LongAdder();
+    private final LongAdder productionNanos = new LongAdder();
+    private final LongAdder candidateNanos = new LongAdder();
+
+    ModelComparison(String candidate) {
+        this.candidate = candidate;
+    }
+
+    void recordRouted() {
+        routedRequests.increment();
+    }
+
+    void recordDropped() {
+        droppedShadowRequests.increment();
+    }
+
+    void recordComparison(double[] production, int productionClass, long productionElapsedNanos,
+                          double[] candidateProbabilities, int candidateClass, long candidateElapsedNanos) {
+        comparisons.increment();
+        if (productionClass == candidateClass) {
+            agreements.increment();
+        }
+        double maxDelta = 0.0;
+        for (int c = 0; c < production.length; c++) {
+            maxDelta = Math.max(maxDelta, Math.abs(production[c] - candidateProbabilities[c]));
+        }
+        probabilityDeltaSum.add(maxDelta);
+        maxProbabilityDeltaBits.accumulate(Double.doubleToRawLongBits(maxDelta));
+        // Negative when production was served from the cache; latency is compared on misses only
+        if (productionElapsedNanos >= 0) {
+            latencySamples.increment();
+            productionNanos.add(productionElapsedNanos);
+            candidateNanos.add(candidateElapsedNanos);
+        }
+    }
+
+    public String getCandidate() {
+        return candidate;
+    }
+
+    public long getRoutedRequests() {
+        return routedRequests.sum();
+    }
+
+    public long getComparisons() {
+        return comparisons.sum();
+    }
+
+    public long getDroppedShadowRequests() {
+        return droppedShadowRequests.sum();
+    }
+
+    public double getAgreementRate() {
+        long n = comparisons.sum();
+        return n > 0 ? (double) agreements.sum() / n : Double.NaN;
+    }
+
+    // Mean over requests of the largest per-class probability difference
+    public double getMeanProbabilityDelta() {
+        long n = comparisons.sum();
+        return n > 0 ? probabilityDeltaSum.sum() / n : Double.NaN;
+    }
+
+    public double getMaxProbabilityDelta() {
+        return Double.longBitsToDouble(maxProbabilityDeltaBits.get());
+    }
+
+    public long getLatencySamples() {
+        return latencySamples.sum();
+    }
+
+    public double getMeanProductionNanos() {
+        long n = latencySamples.sum();
+        return n > 0 ? (double) productionNanos.sum() / n : Double.NaN;
+    }
+
+    public double getMeanCandidateNanos() {
+        long n = latencySamples.sum();
+        return n > 0 ? (double) candidateNanos.sum() / n : Double.NaN;
+    }
+
+    public double getAddedLatencyNanos() {
+        return getMeanCandidateNanos() - getMeanProductionNanos();
+    }
+}
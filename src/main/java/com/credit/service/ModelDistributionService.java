@@ -0,0 +1,296 @@
+package com.credit.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distributes models across a fleet through a shared directory, such as a network
+ * mount or a local stand-in for an artifact store.
+ *
+ * The node running in {@code publish} mode writes every model it activates to the
+ * directory, by temp file and atomic rename. Its versions only ever grow there: a
+ * rollback is published as a new version carrying the older weights.
+ *
+ * Nodes in {@code follow} mode watch the directory with a {@link WatchService} and
+ * also check it every {@code model.distribution.poll-interval}, since network file
+ * systems often deliver no events. A file is loaded on the watcher thread only if its
+ * version is newer than the last one taken from the directory and it passes the model
+ * file's CRC32 check. It is then activated with a single reference swap, so requests
+ * in flight finish on the old model and none are dropped. Torn or stale files are
+ * skipped until the file changes again.
+ */
+@Slf4j
+@Service
+public class ModelDistributionService implements ModelChangeListener {
+    public enum Mode { OFF, PUBLISH, FOLLOW }
+
+    private final CreditPredictionService predictionService;
+    private final Mode mode;
+    private final String nodeId;
+    private final Path file;
+    private final long pollIntervalMillis;
+    private final Thread watcher;
+    private volatile boolean running = true;
+
+    private final Counter loaded;
+    private final Counter rejected;
+    private final Counter failed;
+
+    // Follower state, written by the watcher thread only
+    private ModelFile.Stamp lastSeen;
+    private volatile ModelFile.Stamp lastApplied;
+    private volatile Instant lastAppliedAt;
+    private volatile Instant lastCheckAt;
+    private volatile String lastError;
+
+    // Publisher state, guarded by this
+    private long lastPublishedVersion;
+    private volatile Instant lastPublishedAt;
+
+    public ModelDistributionService(CreditPredictionService predictionService, MeterRegistry registry,
+                                    @Value("${model.distribution.mode:off}") String mode,
+                                    @Value("${model.distribution.dir:shared-models}") String dir,
+                                    @Value("${model.distribution.file:credit_predictor.model}") String fileName,
+                                    @Value("${model.distribution.poll-interval:15s}") Duration pollInterval,
+                                    @Value("${model.distribution.node-id:local}") String nodeId) {
+        this.predictionService = predictionService;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.nodeId = nodeId;
+        this.file = Paths.get(dir).resolve(fileName).toAbsolutePath();
+        this.pollIntervalMillis = Math.max(1, pollInterval.toMillis());
+        this.loaded = loadCounter(registry, "loaded");
+        this.rejected = loadCounter(registry, "rejected");
+        this.failed = loadCounter(registry, "failed");
+        this.watcher = new Thread(this::watch, "model-watcher");
+        this.watcher.setDaemon(true);
+
+        if (this.mode == Mode.PUBLISH) {
+            startPublishing();
+        } else if (this.mode == Mode.FOLLOW) {
+            startFollowing();
+        }
+    }
+
+    private static Counter loadCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("credit.model.distribution.loads")
+            .description("Models found in the shared model directory, by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    private void startPublishing() {
+        try {
+            Files.createDirectories(file.getParent());
+            if (Files.exists(file)) {
+                lastPublishedVersion = ModelFile.stamp(file).version();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot use model distribution directory " + file.getParent(), e);
+        }
+        predictionService.addModelChangeListener(this);
+        log.info("Node {} publishes its models to {}", nodeId, file);
+        // A restarted publisher must not push an older local model over the fleet's
+        if (predictionService.getModelSnapshot().getVersion() > lastPublishedVersion) {
+            publish(predictionService.getModelSnapshot());
+        }
+    }
+
+    private void startFollowing() {
+        try {
+            Files.createDirectories(file.getParent());
+            // The model saved locally on the last run may already be the shared one
+            Path local = predictionService.getModelPath();
+            if (Files.exists(file) && Files.exists(local)) {
+                ModelFile.Stamp stamp = ModelFile.stamp(file);
+                if (stamp.equals(ModelFile.stamp(local))
+                    && stamp.version() == predictionService.getModelSnapshot().getVersion()) {
+                    lastSeen = stamp;
+                    lastApplied = stamp;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Cannot read shared model {} yet: {}", file, e.getMessage());
+        }
+        watcher.start();
+        log.info("Node {} follows models published to {}", nodeId, file);
+    }
+
+    @Override
+    public void onModelChanged(ModelSnapshot previous, ModelSnapshot current) {
+        publish(current);
+    }
+
+    private synchronized void publish(ModelSnapshot snapshot) {
+        ModelSnapshot published = snapshot;
+        if (snapshot.getVersion() < lastPublishedVersion) {
+            published = snapshot.withVersion(Math.max(lastPublishedVersion + 1, predictionService.nextVersion()));
+            log.info("Publishing rolled-back model version {} as version {}", snapshot.getVersion(),
+                published.getVersion());
+        } else if (snapshot.getVersion() == lastPublishedVersion) {
+            return;
+        }
+        try {
+            ModelFile.write(published, file);
+            lastPublishedVersion = published.getVersion();
+            lastPublishedAt = Instant.now();
+            log.info("Published model version {} to {}", published.getVersion(), file);
+        } catch (IOException e) {
+            // The fleet keeps serving the previous model; the next activation tries again
+            log.error("Failed to publish model version {}: {}", published.getVersion(), e.getMessage());
+        }
+    }
+
+    private void watch() {
+        WatchService watchService = null;
+        try {
+            watchService = file.getFileSystem().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("No file events for {}, checking every {} ms only: {}", file.getParent(), pollIntervalMillis,
+                e.getMessage());
+            watchService = close(watchService);
+        }
+        try {
+            while (running) {
+                check();
+                if (watchService == null) {
+                    Thread.sleep(pollIntervalMillis);
+                    continue;
+                }
+                // Any event in the directory triggers a check; checks are cheap when nothing changed
+                WatchKey key = watchService.poll(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    if (!key.reset()) {
+                        log.warn("Stopped receiving file events for {}, checking every {} ms only",
+                            file.getParent(), pollIntervalMillis);
+                        watchService = close(watchService);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(watchService);
+        }
+    }
+
+    private static WatchService close(WatchService watchService) {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Failed to close watch service: {}", e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    // Watcher thread: load and activate the shared model if it is new
+    void check() {
+        lastCheckAt = Instant.now();
+        if (!Files.exists(file)) {
+            return;
+        }
+        ModelFile.Stamp stamp;
+        try {
+            stamp = ModelFile.stamp(file);
+        } catch (IOException e) {
+            fail("Cannot read " + file + ": " + e.getMessage());
+            return;
+        }
+        if (stamp.equals(lastSeen)) {
+            return;
+        }
+        lastSeen = stamp;
+        ModelFile.Stamp applied = lastApplied;
+        if (applied != null && stamp.version() <= applied.version()) {
+            rejected.increment();
+            lastError = "Version " + stamp.version() + " is not newer than " + applied.version();
+            log.warn("Ignoring shared model version {}: version {} was already loaded", stamp.version(),
+                applied.version());
+            return;
+        }
+        ModelSnapshot snapshot;
+        try {
+            snapshot = ModelFile.read(file);
+        } catch (IOException | RuntimeException e) {
+            fail("Shared model version " + stamp.version() + " is not loadable: " + e.getMessage());
+            return;
+        }
+        if (snapshot.getVersion() != stamp.version()) {
+            // Replaced between the two reads; look again on the next check
+            lastSeen = null;
+            return;
+        }
+        predictionService.activate(snapshot);
+        lastApplied = stamp;
+        lastAppliedAt = Instant.now();
+        lastError = null;
+        loaded.increment();
+        log.info("Node {} switched to shared model version {} (CRC32 {})", nodeId, stamp.version(),
+            Integer.toHexString(stamp.checksum()));
+    }
+
+    private void fail(String error) {
+        failed.increment();
+        if (!Objects.equals(error, lastError)) {
+            log.warn(error);
+        }
+        lastError = error;
+    }
+
+    public Map<String, Object> getStats() {
+        ModelSnapshot serving = predictionService.getModelSnapshot();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("mode", mode.name().toLowerCase(Locale.ROOT));
+        stats.put("servingVersion", serving.getVersion());
+        stats.put("file", file.toString());
+        if (mode == Mode.PUBLISH) {
+            synchronized (this) {
+                stats.put("lastPublishedVersion", lastPublishedVersion);
+            }
+            stats.put("lastPublishedAt", lastPublishedAt);
+        } else if (mode == Mode.FOLLOW) {
+            ModelFile.Stamp applied = lastApplied;
+            stats.put("sharedVersion", applied != null ? applied.version() : null);
+            stats.put("sharedChecksum", applied != null ? Integer.toHexString(applied.checksum()) : null);
+            stats.put("servingShared", applied != null && applied.version() == serving.getVersion());
+            stats.put("lastLoadedAt", lastAppliedAt);
+            stats.put("lastCheckAt", lastCheckAt);
+            stats.put("loaded", (long) loaded.count());
+            stats.put("rejected", (long) rejected.count());
+            stats.put("failed", (long) failed.count());
+            stats.put("lastError", lastError);
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        watcher.interrupt();
+    }
+}
@@ -0,0 +1,286 @@
+package com.credit.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary model file.
+ *
+ * <pre>
+ * offset  size   content (little endian)
+ * 0       4      magic "CCPM"
+ * 4       2      schema version (1)
+ * 6       2      flags (bit 0: feature distribution section present)
+ * 8       8      model version
+ * 16      8      trained at, epoch millis (-1 if unknown)
+ * 24      8      training samples
+ * 32      8      training loss (NaN if unknown)
+ * 40      4      class count C
+ * 44      4      feature count F
+ * 48      ...    F feature names, then C class labels, each u16 length + UTF-8 bytes
+ * ...     ...    zero padding to a multiple of 8
+ * ...     8*F    feature means (float64)
+ * ...     8*F    feature standard deviations (float64)
+ * ...     8*C*(F+1) weights, row per class, bias first (float64)
+ * ...     8      if flag bit 0: bucket count B (u32), zero padding (u32)
+ * ...     8*F*(B+2) if flag bit 0: per feature the bucket center and scale, then the
+ *                training fraction of rows in each of the B buckets (float64)
+ * end-4   4      CRC32 of every preceding byte
+ * </pre>
+ *
+ * Files are written to a temp file and renamed into place, so readers never see a
+ * partial model, and loaded through a read-only memory mapping. Readers that predate
+ * the feature distribution section ignore it, since it sits before the CRC.
+ */
+@Slf4j
+public final class ModelFile {
+    static final int MAGIC = 0x4D504343; // "CCPM" read as little endian
+    static final short SCHEMA_VERSION = 1;
+    static final String[] FEATURE_NAMES = {
+        "ageOfCredit", "derogatoryMarks", "ficoScore", "missedPayments",
+        "creditInquiries", "totalAccounts", "creditLimit", "income"
+    };
+    static final String[] CLASS_LABELS = {"Low", "Medium", "High"};
+    static final short FLAG_FEATURE_DISTRIBUTION = 1;
+
+    private static final int FIXED_HEADER_SIZE = 48;
+    private static final short JAVA_SERIALIZATION_MAGIC = (short) 0xACED;
+
+    private ModelFile() {
+    }
+
+    public static void write(ModelSnapshot snapshot, Path path) throws IOException {
+        double[][] weights = snapshot.weights();
+        int numClasses = weights.length;
+        int numFeatures = FEATURE_NAMES.length;
+
+        byte[][] names = new byte[numFeatures + numClasses][];
+        int namesSize = 0;
+        for (int i = 0; i < names.length; i++) {
+            String name = i < numFeatures ? FEATURE_NAMES[i] : CLASS_LABELS[i - numFeatures];
+            names[i] = name.getBytes(StandardCharsets.UTF_8);
+            namesSize += Short.BYTES + names[i].length;
+        }
+        int dataOffset = align8(FIXED_HEADER_SIZE + namesSize);
+        FeatureDistribution distribution = snapshot.featureDistribution();
+        int distributionSize = distribution == null ? 0
+            : 2 * Integer.BYTES + Double.BYTES * numFeatures * (FeatureDistribution.BUCKETS + 2);
+        int size = dataOffset + Double.BYTES * (2 * numFeatures + numClasses * (numFeatures + 1)) + distributionSize
+            + Integer.BYTES;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+            .putShort(SCHEMA_VERSION)
+            .putShort(distribution != null ? FLAG_FEATURE_DISTRIBUTION : 0)
+            .putLong(snapshot.getVersion())
+            .putLong(snapshot.getTrainedAt() != null ? snapshot.getTrainedAt().toEpochMilli() : -1L)
+            .putLong(snapshot.getTrainingSamples())
+            .putDouble(snapshot.getTrainingLoss())
+            .putInt(numClasses)
+            .putInt(numFeatures);
+        for (byte[] name : names) {
+            buffer.putShort((short) name.length).put(name);
+        }
+        buffer.position(dataOffset);
+        for (double mean : snapshot.featureMeans()) {
+            buffer.putDouble(mean);
+        }
+        for (double std : snapshot.featureStds()) {
+            buffer.putDouble(std);
+        }
+        for (double[] row : weights) {
+            for (double weight : row) {
+                buffer.putDouble(weight);
+            }
+        }
+        if (distribution != null) {
+            buffer.putInt(FeatureDistribution.BUCKETS).putInt(0);
+            for (int j = 0; j < numFeatures; j++) {
+                buffer.putDouble(distribution.center(j)).putDouble(distribution.scale(j));
+                for (int b = 0; b < FeatureDistribution.BUCKETS; b++) {
+                    buffer.putDouble(distribution.fraction(j, b));
+                }
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        // Write to a temp file next to the target, then atomically swap it in
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static ModelSnapshot read(Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < FIXED_HEADER_SIZE + Integer.BYTES) {
+                throw new IOException("Model file " + path + " is too small (" + channel.size() + " bytes)");
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        int size = buffer.limit();
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Model file " + path + " has an unknown format");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(size - Integer.BYTES));
+        int expectedCrc = buffer.getInt(size - Integer.BYTES);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Model file " + path + " failed its CRC32 check");
+        }
+        short schemaVersion = buffer.getShort(4);
+        if (schemaVersion != SCHEMA_VERSION) {
+            throw new IOException("Model file " + path + " has unsupported schema version " + schemaVersion);
+        }
+
+        short flags = buffer.getShort(6);
+
+        buffer.position(8);
+        long version = buffer.getLong();
+        long trainedAtMillis = buffer.getLong();
+        long trainingSamples = buffer.getLong();
+        double trainingLoss = buffer.getDouble();
+        int numClasses = buffer.getInt();
+        int numFeatures = buffer.getInt();
+        if (numClasses != CLASS_LABELS.length || numFeatures != FEATURE_NAMES.length) {
+            throw new IOException("Model file " + path + " has " + numClasses + " classes and " + numFeatures
+                + " features, expected " + CLASS_LABELS.length + " and " + FEATURE_NAMES.length);
+        }
+        for (int i = 0; i < numFeatures + numClasses; i++) {
+            byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(name);
+            String expected = i < numFeatures ? FEATURE_NAMES[i] : CLASS_LABELS[i - numFeatures];
+            if (!expected.equals(new String(name, StandardCharsets.UTF_8))) {
+                throw new IOException("Model file " + path + " has schema entry '"
+                    + new String(name, StandardCharsets.UTF_8) + "' where '" + expected + "' was expected");
+            }
+        }
+        buffer.position(align8(buffer.position()));
+
+        double[] featureMeans = new double[numFeatures];
+        double[] featureStds = new double[numFeatures];
+        double[][] weights = new double[numClasses][numFeatures + 1];
+        buffer.asDoubleBuffer().get(featureMeans);
+        buffer.position(buffer.position() + numFeatures * Double.BYTES);
+        buffer.asDoubleBuffer().get(featureStds);
+        buffer.position(buffer.position() + numFeatures * Double.BYTES);
+        for (double[] row : weights) {
+            buffer.asDoubleBuffer().get(row);
+            buffer.position(buffer.position() + row.length * Double.BYTES);
+        }
+        FeatureDistribution distribution = null;
+        if ((flags & FLAG_FEATURE_DISTRIBUTION) != 0) {
+            distribution = readDistribution(buffer, numFeatures, path);
+        }
+
+        Instant trainedAt = trainedAtMillis >= 0 ? Instant.ofEpochMilli(trainedAtMillis) : null;
+        return new ModelSnapshot(version, weights, featureMeans, featureStds, trainedAt, trainingSamples, trainingLoss,
+            distribution);
+    }
+
+    private static FeatureDistribution readDistribution(ByteBuffer buffer, int numFeatures, Path path)
+            throws IOException {
+        int buckets = buffer.getInt();
+        buffer.getInt(); // padding
+        if (buckets != FeatureDistribution.BUCKETS) {
+            throw new IOException("Model file " + path + " has " + buckets + " feature distribution buckets, expected "
+                + FeatureDistribution.BUCKETS);
+        }
+        double[] centers = new double[numFeatures];
+        double[] scales = new double[numFeatures];
+        double[][] fractions = new double[numFeatures][buckets];
+        for (int j = 0; j < numFeatures; j++) {
+            centers[j] = buffer.getDouble();
+            scales[j] = buffer.getDouble();
+            for (int b = 0; b < buckets; b++) {
+                fractions[j][b] = buffer.getDouble();
+            }
+        }
+        return new FeatureDistribution(centers, scales, fractions);
+    }
+
+    /**
+     * Model version and stored CRC32 of a model file, read from its header and trailer
+     * without verifying the rest. Identifies a file cheaply; {@link #read} does the checks.
+     */
+    record Stamp(long version, int checksum) {
+    }
+
+    static Stamp stamp(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FIXED_HEADER_SIZE + Integer.BYTES) {
+                throw new IOException("Model file " + path + " is too small (" + size + " bytes)");
+            }
+            ByteBuffer header = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, 0);
+            readFully(channel, trailer, size - Integer.BYTES);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Model file " + path + " has an unknown format");
+            }
+            return new Stamp(header.getLong(8), trailer.getInt(0));
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of model file");
+            }
+        }
+    }
+
+    // True if the file was written by the old ObjectOutputStream-based saveModel
+    static boolean isLegacy(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Short.BYTES);
+            channel.read(magic, 0);
+            return magic.position() == Short.BYTES && magic.getShort(0) == JAVA_SERIALIZATION_MAGIC;
+        }
+    }
+
+    static ModelSnapshot readLegacy(Path path) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(path))) {
+            double[][] weights = (double[][]) ois.readObject();
+            double[] featureMeans = (double[]) ois.readObject();
+            double[] featureStds = (double[]) ois.readObject();
+            return new ModelSnapshot(1, weights, featureMeans, featureStds, null, 0, Double.NaN);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Legacy model file " + path + " is not readable: " + e.getMessage(), e);
+        }
+    }
+
+    private static int align8(int offset) {
+        return (offset + 7) & ~7;
+    }
+}
@@ -0,0 +1,272 @@
+package com.credit.service;
+
+import com.credit.model.CreditData;
+import com.credit.model.PredictionResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process registry of named model versions. Models can be promoted to serve
+ * production traffic or rolled back without a restart, and one candidate can
+ * receive a share of live traffic and/or be shadow-scored off the request thread.
+ */
+@Slf4j
+@Service
+public class ModelRegistry implements ModelChangeListener {
+    private static final int MAX_HISTORY = 10;
+
+    private final CreditPredictionService predictionService;
+    private final PredictionCache predictionCache;
+    private final PredictionMetrics metrics;
+    private final Map<String, ModelSnapshot> models = new LinkedHashMap<>();
+    private final Set<String> autoRegistered = new HashSet<>(); // names given by onModelChanged, not by users
+    private final Deque<ModelSnapshot> history = new ArrayDeque<>();
+    private final Map<String, ModelComparison> comparisons = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor shadowExecutor;
+    private final Path modelDir;
+    private volatile Candidate candidate;
+    // Models are activated outside this object's lock, since the change listener takes it
+    private final Object rollbacks = new Object(); // one rollback at a time
+    private ModelSnapshot rollbackTarget; // guarded by this
+
+    private record Candidate(String name, ModelSnapshot snapshot, double trafficPercent, boolean shadow,
+                             ModelComparison comparison) {
+    }
+
+    public ModelRegistry(CreditPredictionService predictionService, PredictionCache predictionCache,
+                         PredictionMetrics metrics,
+                         @Value("${model.registry.shadow.threads:1}") int shadowThreads,
+                         @Value("${model.registry.shadow.queue-capacity:1024}") int shadowQueueCapacity,
+                         @Value("${model.registry.dir:models}") String modelDir) {
+        this.predictionService = predictionService;
+        this.modelDir = Paths.get(modelDir);
+        this.predictionCache = predictionCache;
+        this.metrics = metrics;
+        this.shadowExecutor = new ThreadPoolExecutor(shadowThreads, shadowThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(shadowQueueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "shadow-scoring");
+                thread.setDaemon(true);
+                return thread;
+            });
+        ModelSnapshot production = predictionService.getModelSnapshot();
+        models.put(defaultName(production), production);
+        autoRegistered.add(defaultName(production));
+        predictionService.addModelChangeListener(this);
+    }
+
+    /**
+     * Scores with the (cached) production model, or with the candidate for its share of
+     * traffic, and hands shadow comparisons to the background executor.
+     */
+    public PredictionResult predict(CreditData creditData, PredictionResult result) {
+        score(creditData, result);
+        metrics.recordPredictedClass(result.getPredictedClass());
+        return result;
+    }
+
+    private PredictionResult score(CreditData creditData, PredictionResult result) {
+        Candidate current = candidate;
+        if (current == null) {
+            return predictionCache.predict(creditData, result);
+        }
+
+        if (current.trafficPercent() > 0 && ThreadLocalRandom.current().nextDouble(100.0) < current.trafficPercent()) {
+            current.comparison().recordRouted();
+            return predictionService.predictEligibility(creditData, result, current.snapshot());
+        }
+
+        long start = System.nanoTime();
+        boolean cached = predictionCache.score(creditData, result);
+        // A cache hit says nothing about the production model's scoring time
+        long productionNanos = cached ? -1 : System.nanoTime() - start;
+        if (current.shadow()) {
+            shadowScore(current, creditData, result, productionNanos);
+        }
+        return result;
+    }
+
+    private void shadowScore(Candidate current, CreditData creditData, PredictionResult production, long productionNanos) {
+        double[] productionProbabilities = production.getProbabilities().clone();
+        int productionClass = production.getPredictedClass();
+        try {
+            shadowExecutor.execute(() -> {
+                PredictionResult shadow = new PredictionResult();
+                long start = System.nanoTime();
+                predictionService.predictEligibility(creditData, shadow, current.snapshot());
+                long candidateNanos = System.nanoTime() - start;
+                current.comparison().recordComparison(productionProbabilities, productionClass, productionNanos,
+                    shadow.getProbabilities(), shadow.getPredictedClass(), candidateNanos);
+            });
+        } catch (RejectedExecutionException e) {
+            // Shadow scoring is best effort; never slow down the request
+            current.comparison().recordDropped();
+        }
+    }
+
+    public synchronized void register(String name, ModelSnapshot snapshot) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Model name must not be blank");
+        }
+        models.put(name, snapshot);
+        autoRegistered.remove(name);
+        log.info("Registered model {} (version {})", name, snapshot.getVersion());
+    }
+
+    /**
+     * Registers a model file under {@code model.registry.dir}. Paths outside that directory
+     * are rejected with an {@link IllegalArgumentException}.
+     */
+    public ModelSnapshot register(String name, String path) throws IOException {
+        ModelSnapshot snapshot = ModelFile.read(ConfinedPaths.resolve(modelDir, path));
+        register(name, snapshot);
+        return snapshot;
+    }
+
+    public synchronized Map<String, ModelSnapshot> getModels() {
+        return new LinkedHashMap<>(models);
+    }
+
+    public synchronized List<Long> getHistory() {
+        List<Long> versions = new ArrayList<>();
+        history.forEach(snapshot -> versions.add(snapshot.getVersion()));
+        return versions;
+    }
+
+    public ModelSnapshot promote(String name) {
+        ModelSnapshot snapshot;
+        synchronized (this) {
+            snapshot = find(name);
+            Candidate current = candidate;
+            if (current != null && current.name().equals(name)) {
+                candidate = null;
+            }
+        }
+        predictionService.activate(snapshot);
+        log.info("Promoted model {} (version {})", name, snapshot.getVersion());
+        return snapshot;
+    }
+
+    public ModelSnapshot rollback() {
+        synchronized (rollbacks) {
+            ModelSnapshot previous;
+            synchronized (this) {
+                previous = history.peekFirst();
+                if (previous == null) {
+                    throw new NoSuchElementException("No previous model to roll back to");
+                }
+                rollbackTarget = previous;
+            }
+            try {
+                predictionService.activate(previous);
+            } finally {
+                synchronized (this) {
+                    rollbackTarget = null;
+                }
+            }
+            log.info("Rolled back to model version {}", previous.getVersion());
+            return previous;
+        }
+    }
+
+    public synchronized void setCandidate(String name, double trafficPercent, boolean shadow) {
+        if (trafficPercent < 0 || trafficPercent > 100) {
+            throw new IllegalArgumentException("Traffic percentage must be between 0 and 100");
+        }
+        ModelSnapshot snapshot = find(name);
+        ModelComparison comparison = new ModelComparison(name);
+        comparisons.put(name, comparison);
+        candidate = new Candidate(name, snapshot, trafficPercent, shadow, comparison);
+        log.info("Candidate model {} gets {}% of traffic, shadow scoring {}", name, trafficPercent,
+            shadow ? "on" : "off");
+    }
+
+    public synchronized void clearCandidate() {
+        candidate = null;
+    }
+
+    public Map<String, Object> getCandidate() {
+        Candidate current = candidate;
+        if (current == null) {
+            return Map.of();
+        }
+        return Map.of(
+            "name", current.name(),
+            "version", current.snapshot().getVersion(),
+            "trafficPercent", current.trafficPercent(),
+            "shadow", current.shadow()
+        );
+    }
+
+    public Optional<ModelComparison> getComparison(String name) {
+        return Optional.ofNullable(comparisons.get(name));
+    }
+
+    @Override
+    public synchronized void onModelChanged(ModelSnapshot previous, ModelSnapshot current) {
+        if (current == rollbackTarget) {
+            // A rollback takes its model off the history instead of adding the one it replaced
+            history.remove(current);
+            rollbackTarget = null;
+        } else if (previous != null && previous != current) {
+            history.addFirst(previous);
+            if (history.size() > MAX_HISTORY) {
+                history.removeLast();
+            }
+        }
+        if (!models.containsValue(current)) {
+            String name = defaultName(current);
+            if (!models.containsKey(name)) {
+                models.put(name, current);
+                autoRegistered.add(name);
+            }
+        }
+        // Auto-registered versions are kept only while they can still be rolled back to
+        autoRegistered.removeIf(name -> {
+            ModelSnapshot snapshot = models.get(name);
+            if (snapshot == current || history.contains(snapshot)) {
+                return false;
+            }
+            models.remove(name);
+            return true;
+        });
+    }
+
+    private ModelSnapshot find(String name) {
+        ModelSnapshot snapshot = models.get(name);
+        if (snapshot == null) {
+            throw new NoSuchElementException("Unknown model: " + name);
+        }
+        return snapshot;
+    }
+
+    private static String defaultName(ModelSnapshot snapshot) {
+        return "v" + snapshot.getVersion();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shadowExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,84 @@
+package com.credit.service;
+
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a trained model: weights, feature scaling parameters and
+ * training metadata. A snapshot is fully built before it is published, so
+ * readers never observe a partially trained model. Building one also compiles the
+ * {@link CompiledModel} used for serving, so publishing adds no work to the first request.
+ */
+@Getter
+public final class ModelSnapshot {
+    private final long version;
+    private final Instant trainedAt; // null for models not trained in this process
+    private final long trainingSamples;
+    private final double trainingLoss;
+
+    // Arrays are copied on the way in and never handed out, so they stay effectively final
+    @Getter(lombok.AccessLevel.NONE)
+    private final double[][] weights; // [numClasses][numFeatures+1]
+    @Getter(lombok.AccessLevel.NONE)
+    private final double[] featureMeans;
+    @Getter(lombok.AccessLevel.NONE)
+    private final double[] featureStds;
+    @Getter(lombok.AccessLevel.NONE)
+    private final CompiledModel compiled;
+    @Getter(lombok.AccessLevel.NONE)
+    private final FeatureDistribution featureDistribution; // null if the training data is unknown
+
+    ModelSnapshot(long version, double[][] weights, double[] featureMeans, double[] featureStds,
+                  Instant trainedAt, long trainingSamples, double trainingLoss) {
+        this(version, weights, featureMeans, featureStds, trainedAt, trainingSamples, trainingLoss, null);
+    }
+
+    ModelSnapshot(long version, double[][] weights, double[] featureMeans, double[] featureStds,
+                  Instant trainedAt, long trainingSamples, double trainingLoss,
+                  FeatureDistribution featureDistribution) {
+        this.version = version;
+        this.weights = new double[weights.length][];
+        for (int c = 0; c < weights.length; c++) {
+            this.weights[c] = weights[c].clone();
+        }
+        this.featureMeans = featureMeans.clone();
+        this.featureStds = featureStds.clone();
+        this.compiled = new CompiledModel(this.weights, this.featureMeans, this.featureStds);
+        this.trainedAt = trainedAt;
+        this.trainingSamples = trainingSamples;
+        this.trainingLoss = trainingLoss;
+        this.featureDistribution = featureDistribution;
+    }
+
+    // Same model under another version number
+    ModelSnapshot withVersion(long newVersion) {
+        return new ModelSnapshot(newVersion, weights, featureMeans, featureStds, trainedAt, trainingSamples,
+            trainingLoss, featureDistribution);
+    }
+
+    public int getNumClasses() {
+        return weights.length;
+    }
+
+    // Package-private raw accessors for the scoring code; callers must not mutate them
+    double[][] weights() {
+        return weights;
+    }
+
+    double[] featureMeans() {
+        return featureMeans;
+    }
+
+    double[] featureStds() {
+        return featureStds;
+    }
+
+    CompiledModel compiled() {
+        return compiled;
+    }
+
+    FeatureDistribution featureDistribution() {
+        return featureDistribution;
+    }
+}
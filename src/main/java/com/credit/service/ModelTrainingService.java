@@ -2,77 +2,164 @@ package com.credit.service;
 
 import com.credit.model.TrainingData;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.random.RandomGenerator;
 
 @Slf4j
 @Service
 public class ModelTrainingService {
     private final CreditPredictionService predictionService;
+    private final TrainingConfig trainingConfig;
+    private final int sampleSize;
     private final Random random = new Random();
 
-    public ModelTrainingService(CreditPredictionService predictionService) {
+    public ModelTrainingService(CreditPredictionService predictionService,
+                                @Value("${model.training.learning-rate:0.01}") double learningRate,
+                                @Value("${model.training.epochs:100}") int epochs,
+                                @Value("${model.training.lambda:0.01}") double lambda,
+                                @Value("${model.training.batch-size:0}") int batchSize,
+                                @Value("${model.training.threads:0}") int threads,
+                                @Value("${model.training.seed:#{null}}") Long seed,
+                                @Value("${model.training.sample-size:1000}") int sampleSize) {
         this.predictionService = predictionService;
+        this.sampleSize = sampleSize;
+        this.trainingConfig = TrainingConfig.builder()
+            .learningRate(learningRate)
+            .epochs(epochs)
+            .lambda(lambda)
+            .batchSize(batchSize)
+            .parallelism(threads)
+            .seed(seed)
+            .build();
+    }
+
+    // Hyperparameters from configuration, the starting point for evaluations
+    public TrainingConfig getTrainingConfig() {
+        return trainingConfig;
     }
 
     public void trainModelWithSampleData() {
-        List<TrainingData> trainingData = generateSampleData(1000);
-        trainModel(trainingData);
+        trainModelWithSampleData(TrainingMonitor.NONE, trainingConfig.effectiveParallelism(), true);
+    }
+
+    public ModelSnapshot trainModelWithSampleData(TrainingMonitor monitor, int maxThreads, boolean activate) {
+        TrainingConfig config = limitThreads(maxThreads);
+        long seed = trainingConfig.getSeed() != null ? trainingConfig.getSeed() : random.nextLong();
+        try {
+            // Primitive columns straight from the generator; no per-row objects
+            SyntheticDataGenerator.Columns sampleData =
+                SyntheticDataGenerator.generate(sampleSize, seed, config.effectiveParallelism());
+            ModelSnapshot trained = predictionService.trainModel(sampleData, config, monitor, activate);
+            log.info("Model training completed successfully");
+            return trained;
+        } catch (CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error training model: {}", e.getMessage());
+            throw new RuntimeException("Failed to train model", e);
+        }
     }
 
-    private List<TrainingData> generateSampleData(int size) {
+    public void trainModelFromFile(Path dataFile) throws IOException {
+        trainModelFromFile(dataFile, TrainingMonitor.NONE, trainingConfig.effectiveParallelism(), true);
+    }
+
+    public ModelSnapshot trainModelFromFile(Path dataFile, TrainingMonitor monitor, int maxThreads,
+                                           boolean activate) throws IOException {
+        // Stream the memory-mapped columnar file instead of materializing rows in heap
+        ColumnarTrainingFile source = ColumnarTrainingFile.open(dataFile);
+        return predictionService.trainModel(source, limitThreads(maxThreads), monitor, activate);
+    }
+
+    private TrainingConfig limitThreads(int maxThreads) {
+        return trainingConfig.toBuilder()
+            .parallelism(Math.min(trainingConfig.effectiveParallelism(), maxThreads))
+            .build();
+    }
+
+    /**
+     * Generates a reproducible synthetic data set; the same seed always yields the same rows.
+     */
+    public static List<TrainingData> generateSampleData(int size, long seed) {
+        return generateSampleData(size, new Random(seed));
+    }
+
+    private static List<TrainingData> generateSampleData(int size, Random random) {
         List<TrainingData> data = new ArrayList<>();
-        
+        double[] features = new double[TrainingDataSource.NUM_FEATURES];
+
         for (int i = 0; i < size; i++) {
+            int eligibilityClass = generateRow(random, features);
+
             TrainingData sample = new TrainingData();
-            
-            // Generate FICO score first as it influences other factors
-            int ficoScore = generateFicoScore();
-            sample.setFicoScore(ficoScore);
-            
-            // Generate correlated features based on FICO score
-            if (ficoScore >= 740) {
-                // Excellent credit profile
-                sample.setAgeOfCredit(10 + random.nextDouble() * 10); // 10-20 years
-                sample.setDerogatoryMarks(random.nextDouble() < 0.1 ? 1 : 0); // 10% chance of 1 mark
-                sample.setMissedPayments(random.nextDouble() < 0.05 ? 1 : 0); // 5% chance of 1 missed payment
-                sample.setCreditInquiries(random.nextInt(3)); // 0-2 inquiries
-                sample.setTotalAccounts(5 + random.nextInt(10)); // 5-14 accounts
-                sample.setCreditLimit(30000 + random.nextDouble() * 20000); // $30k-$50k
-                sample.setIncome(80000 + random.nextDouble() * 120000); // $80k-$200k
-            } else if (ficoScore >= 670) {
-                // Good credit profile
-                sample.setAgeOfCredit(5 + random.nextDouble() * 10); // 5-15 years
-                sample.setDerogatoryMarks(random.nextDouble() < 0.3 ? random.nextInt(2) : 0); // 30% chance of 0-1 marks
-                sample.setMissedPayments(random.nextDouble() < 0.2 ? random.nextInt(2) : 0); // 20% chance of 0-1 missed payments
-                sample.setCreditInquiries(random.nextInt(4)); // 0-3 inquiries
-                sample.setTotalAccounts(3 + random.nextInt(7)); // 3-9 accounts
-                sample.setCreditLimit(15000 + random.nextDouble() * 15000); // $15k-$30k
-                sample.setIncome(50000 + random.nextDouble() * 30000); // $50k-$80k
-            } else {
-                // Poor credit profile
-                sample.setAgeOfCredit(random.nextDouble() * 5); // 0-5 years
-                sample.setDerogatoryMarks(random.nextInt(5)); // 0-4 marks
-                sample.setMissedPayments(random.nextInt(6)); // 0-5 missed payments
-                sample.setCreditInquiries(random.nextInt(8)); // 0-7 inquiries
-                sample.setTotalAccounts(random.nextInt(4)); // 0-3 accounts
-                sample.setCreditLimit(random.nextDouble() * 10000); // $0-$10k
-                sample.setIncome(random.nextDouble() * 50000); // $0-$50k
-            }
-            
-            // Determine eligibility class based on rules
-            sample.setEligibilityClass(determineEligibilityClass(sample));
-            
+            sample.setAgeOfCredit(features[0]);
+            sample.setDerogatoryMarks((int) features[1]);
+            sample.setFicoScore((int) features[2]);
+            sample.setMissedPayments((int) features[3]);
+            sample.setCreditInquiries((int) features[4]);
+            sample.setTotalAccounts((int) features[5]);
+            sample.setCreditLimit(features[6]);
+            sample.setIncome(features[7]);
+            sample.setEligibilityClass(eligibilityClass);
+
             data.add(sample);
         }
         
         return data;
     }
 
-    private int generateFicoScore() {
+    /**
+     * Draws one synthetic applicant into {@code features} (CreditData order) and
+     * returns its eligibility class.
+     */
+    static int generateRow(RandomGenerator random, double[] features) {
+        // Generate FICO score first as it influences other factors
+        int ficoScore = generateFicoScore(random);
+        features[2] = ficoScore;
+
+        // Generate correlated features based on FICO score
+        if (ficoScore >= 740) {
+            // Excellent credit profile
+            features[0] = 10 + random.nextDouble() * 10; // 10-20 years
+            features[1] = random.nextDouble() < 0.1 ? 1 : 0; // 10% chance of 1 mark
+            features[3] = random.nextDouble() < 0.05 ? 1 : 0; // 5% chance of 1 missed payment
+            features[4] = random.nextInt(3); // 0-2 inquiries
+            features[5] = 5 + random.nextInt(10); // 5-14 accounts
+            features[6] = 30000 + random.nextDouble() * 20000; // $30k-$50k
+            features[7] = 80000 + random.nextDouble() * 120000; // $80k-$200k
+        } else if (ficoScore >= 670) {
+            // Good credit profile
+            features[0] = 5 + random.nextDouble() * 10; // 5-15 years
+            features[1] = random.nextDouble() < 0.3 ? random.nextInt(2) : 0; // 30% chance of 0-1 marks
+            features[3] = random.nextDouble() < 0.2 ? random.nextInt(2) : 0; // 20% chance of 0-1 missed payments
+            features[4] = random.nextInt(4); // 0-3 inquiries
+            features[5] = 3 + random.nextInt(7); // 3-9 accounts
+            features[6] = 15000 + random.nextDouble() * 15000; // $15k-$30k
+            features[7] = 50000 + random.nextDouble() * 30000; // $50k-$80k
+        } else {
+            // Poor credit profile
+            features[0] = random.nextDouble() * 5; // 0-5 years
+            features[1] = random.nextInt(5); // 0-4 marks
+            features[3] = random.nextInt(6); // 0-5 missed payments
+            features[4] = random.nextInt(8); // 0-7 inquiries
+            features[5] = random.nextInt(4); // 0-3 accounts
+            features[6] = random.nextDouble() * 10000; // $0-$10k
+            features[7] = random.nextDouble() * 50000; // $0-$50k
+        }
+
+        // Determine eligibility class based on rules
+        return determineEligibilityClass(features);
+    }
+
+    private static int generateFicoScore(RandomGenerator random) {
         double r = random.nextDouble();
         if (r < 0.2) {
             // 20% chance of excellent credit
@@ -89,17 +176,18 @@ public class ModelTrainingService {
         }
     }
 
-    private int determineEligibilityClass(TrainingData data) {
+    // Features in CreditData order: age, derogatory marks, FICO, missed payments, inquiries, accounts, limit, income
+    private static int determineEligibilityClass(double[] features) {
         double score = 0.0;
         
         // Credit history (0-15 points)
-        score += Math.min(data.getAgeOfCredit() * 1.5, 15.0);
+        score += Math.min(features[0] * 1.5, 15.0);
         
         // Derogatory marks (severe negative impact)
-        score -= Math.pow(data.getDerogatoryMarks() + 1, 2) * 10.0; // Exponential penalty
+        score -= Math.pow(features[1] + 1, 2) * 10.0; // Exponential penalty
         
         // FICO Score (0-30 points)
-        int ficoScore = data.getFicoScore();
+        double ficoScore = features[2];
         if (ficoScore >= 800) {
             score += 30; // Exceptional
         } else if (ficoScore >= 740) {
@@ -113,16 +201,16 @@ public class ModelTrainingService {
         }
         
         // Payment history (severe negative impact)
-        score -= Math.pow(data.getMissedPayments() + 1, 2) * 8.0; // Exponential penalty
+        score -= Math.pow(features[3] + 1, 2) * 8.0; // Exponential penalty
         
         // Credit inquiries (0-5 points, negative impact)
-        score -= data.getCreditInquiries() * 2.0;
+        score -= features[4] * 2.0;
         
         // Account diversity (0-10 points)
-        score += Math.min(data.getTotalAccounts() * 2.0, 10.0);
+        score += Math.min(features[5] * 2.0, 10.0);
         
         // Income to credit limit ratio (0-10 points)
-        double incomeToLimitRatio = data.getIncome() / (data.getCreditLimit() + 1);
+        double incomeToLimitRatio = features[7] / (features[6] + 1);
         score += Math.min(incomeToLimitRatio * 2.0, 10.0);
         
         // Determine class based on score
@@ -130,35 +218,4 @@ public class ModelTrainingService {
         if (score >= 30) return 1; // Medium
         return 0; // Low
     }
-
-    private void trainModel(List<TrainingData> trainingData) {
-        try {
-            // Extract features and labels
-            List<double[]> features = new ArrayList<>();
-            List<Integer> labels = new ArrayList<>();
-            
-            for (TrainingData data : trainingData) {
-                double[] featureVector = new double[] {
-                    1.0, // bias term
-                    data.getAgeOfCredit(),
-                    data.getDerogatoryMarks(),
-                    data.getFicoScore(),
-                    data.getMissedPayments(),
-                    data.getCreditInquiries(),
-                    data.getTotalAccounts(),
-                    data.getCreditLimit(),
-                    data.getIncome()
-                };
-                features.add(featureVector);
-                labels.add(data.getEligibilityClass());
-            }
-            
-            // Train the model
-            predictionService.trainModel(features, labels);
-            log.info("Model training completed successfully");
-        } catch (Exception e) {
-            log.error("Error training model: {}", e.getMessage());
-            throw new RuntimeException("Failed to train model", e);
-        }
-    }
-} 
+}
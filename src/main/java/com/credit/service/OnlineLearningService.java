@@ -0,0 +1,342 @@
+package com.credit.service;
+
+import com.credit.model.PredictionResult;
+import com.credit.model.TrainingData;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the serving model fresh from a stream of labeled outcomes without a full
+ * retrain. Outcomes are queued and a single background thread applies mini-batch
+ * SGD updates to a private copy of the production weights; the result is published
+ * as a new snapshot at most once per {@code model.online.publish-interval}.
+ *
+ * Feature means and standard deviations are kept up to date with Welford's
+ * algorithm, seeded from the base model's statistics. Whenever they move, the
+ * weights are re-expressed for the new scaling so the model's predictions do not
+ * jump. If another model is activated (retrain, promotion, rollback) the learner
+ * drops its unpublished updates and continues from that model.
+ */
+@Slf4j
+@Service
+public class OnlineLearningService implements ModelChangeListener {
+    private static final int NUM_FEATURES = TrainingDataSource.NUM_FEATURES;
+    private static final int STRIDE = NUM_FEATURES + 1; // bias + features
+    private static final double LOSS_DECAY = 0.01; // weight of each batch in the running loss
+    // Below this many rows the statistics are too noisy to carry the weights across rescaling
+    private static final long MIN_STATISTICS_ROWS = 1000;
+
+    private final CreditPredictionService predictionService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final double learningRate;
+    private final double lambda;
+    private final long publishIntervalNanos;
+    private final BlockingQueue<double[]> queue;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // Set by the listener, consumed by the worker
+    private final AtomicReference<ModelSnapshot> rebaseTo = new AtomicReference<>();
+
+    // Worker-owned state
+    private ModelSnapshot base;
+    private double[][] weights;
+    private final double[] scaleMeans = new double[NUM_FEATURES];
+    private final double[] scaleStds = new double[NUM_FEATURES];
+    private long count;
+    private final double[] means = new double[NUM_FEATURES];
+    private final double[] m2 = new double[NUM_FEATURES];
+    private double runningLoss = Double.NaN;
+    private long pendingUpdates;
+    private long lastPublishNanos = System.nanoTime();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private volatile long lastPublishedVersion;
+    private volatile Instant lastPublishedAt;
+    private volatile double lastLoss = Double.NaN;
+
+    public OnlineLearningService(CreditPredictionService predictionService,
+                                 @Value("${model.online.enabled:false}") boolean enabled,
+                                 @Value("${model.online.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${model.online.batch-size:32}") int batchSize,
+                                 @Value("${model.online.learning-rate:0.01}") double learningRate,
+                                 @Value("${model.online.lambda:0.0001}") double lambda,
+                                 @Value("${model.online.publish-interval:1m}") Duration publishInterval) {
+        this.predictionService = predictionService;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.learningRate = learningRate;
+        this.lambda = lambda;
+        this.publishIntervalNanos = publishInterval.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        rebase(predictionService.getModelSnapshot());
+        predictionService.addModelChangeListener(this);
+
+        this.worker = new Thread(this::run, "online-learning");
+        this.worker.setDaemon(true);
+        if (enabled) {
+            worker.start();
+            log.info("Online learning enabled: batches of {}, publishing at most every {} s", this.batchSize,
+                publishInterval.toSeconds());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public record Submission(int accepted, int invalid, int dropped) {
+    }
+
+    /**
+     * Queues labeled outcomes for the background learner. Rows with missing fields or
+     * an unknown class are rejected as invalid; rows that do not fit in the queue are
+     * dropped.
+     */
+    public Submission submit(List<TrainingData> outcomes) {
+        int accepted = 0;
+        int invalidRows = 0;
+        int droppedRows = 0;
+        for (TrainingData outcome : outcomes) {
+            double[] row = toRow(outcome);
+            if (row == null) {
+                invalidRows++;
+            } else if (queue.offer(row)) {
+                accepted++;
+            } else {
+                droppedRows++;
+            }
+        }
+        received.add(outcomes.size());
+        invalid.add(invalidRows);
+        dropped.add(droppedRows);
+        return new Submission(accepted, invalidRows, droppedRows);
+    }
+
+    @Override
+    public void onModelChanged(ModelSnapshot previous, ModelSnapshot current) {
+        if (current.getVersion() != lastPublishedVersion) {
+            rebaseTo.set(current);
+        }
+    }
+
+    private void run() {
+        List<double[]> batch = new ArrayList<>(batchSize);
+        long pollNanos = Math.min(publishIntervalNanos, TimeUnit.SECONDS.toNanos(1));
+        while (running) {
+            try {
+                double[] first = queue.poll(pollNanos, TimeUnit.NANOSECONDS);
+                ModelSnapshot newBase = rebaseTo.getAndSet(null);
+                if (newBase != null) {
+                    if (pendingUpdates > 0) {
+                        log.info("Model version {} was activated; dropping {} unpublished online updates",
+                            newBase.getVersion(), pendingUpdates);
+                        discarded.add(pendingUpdates);
+                    }
+                    rebase(newBase);
+                }
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    update(batch);
+                    batch.clear();
+                }
+                if (pendingUpdates > 0 && System.nanoTime() - lastPublishNanos >= publishIntervalNanos) {
+                    publish();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Online learning update failed: {}", e.getMessage());
+                batch.clear();
+            }
+        }
+    }
+
+    private void rebase(ModelSnapshot snapshot) {
+        base = snapshot;
+        double[][] baseWeights = snapshot.weights();
+        weights = new double[baseWeights.length][];
+        for (int c = 0; c < baseWeights.length; c++) {
+            weights[c] = baseWeights[c].clone();
+        }
+        // Treat the base model's statistics as if they came from its training rows
+        count = snapshot.getTrainingSamples();
+        for (int j = 0; j < NUM_FEATURES; j++) {
+            scaleMeans[j] = snapshot.featureMeans()[j];
+            scaleStds[j] = snapshot.featureStds()[j];
+            means[j] = count > 0 ? scaleMeans[j] : 0.0;
+            m2[j] = count > 0 ? scaleStds[j] * scaleStds[j] * count : 0.0;
+        }
+        runningLoss = snapshot.getTrainingLoss();
+        lastLoss = runningLoss;
+        pendingUpdates = 0;
+    }
+
+    private void update(List<double[]> batch) {
+        boolean hadStatistics = count >= MIN_STATISTICS_ROWS;
+        for (double[] row : batch) {
+            count++;
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                double delta = row[j] - means[j];
+                means[j] += delta / count;
+                m2[j] += delta * (row[j] - means[j]);
+            }
+        }
+        rescale(hadStatistics);
+
+        int numClasses = weights.length;
+        double[][] gradients = new double[numClasses][STRIDE];
+        double[] features = new double[STRIDE];
+        double[] probabilities = new double[numClasses];
+        double batchLoss = 0.0;
+        features[0] = 1.0;
+        for (double[] row : batch) {
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                features[j + 1] = (row[j] - scaleMeans[j]) / scaleStds[j];
+            }
+            int label = (int) row[NUM_FEATURES];
+            softmax(features, probabilities);
+            batchLoss -= Math.log(Math.max(probabilities[label], 1e-15));
+            for (int c = 0; c < numClasses; c++) {
+                double error = probabilities[c] - (c == label ? 1.0 : 0.0);
+                for (int j = 0; j < STRIDE; j++) {
+                    gradients[c][j] += error * features[j];
+                }
+            }
+        }
+
+        int rows = batch.size();
+        for (int c = 0; c < numClasses; c++) {
+            for (int j = 0; j < STRIDE; j++) {
+                weights[c][j] -= learningRate * (gradients[c][j] / rows + lambda * weights[c][j]);
+            }
+        }
+        batchLoss /= rows;
+        runningLoss = Double.isNaN(runningLoss) ? batchLoss : runningLoss + LOSS_DECAY * (batchLoss - runningLoss);
+        lastLoss = runningLoss;
+        pendingUpdates += rows;
+        applied.add(rows);
+    }
+
+    /**
+     * Moves the weights onto the updated Welford statistics. For each class the logit
+     * b + sum w_j (x_j - m_j) / s_j is unchanged under the new m'_j, s'_j when
+     * w'_j = w_j s'_j / s_j and b' = b + sum w_j (m'_j - m_j) / s_j.
+     */
+    private void rescale(boolean preserveOutputs) {
+        for (int j = 0; j < NUM_FEATURES; j++) {
+            double newMean = means[j];
+            double newStd = count > 0 ? Math.sqrt(m2[j] / count) : 1.0;
+            if (newStd < 1e-8) newStd = 1.0; // Prevent division by zero, as in full training
+            if (preserveOutputs) {
+                for (double[] classWeights : weights) {
+                    classWeights[0] += classWeights[j + 1] * (newMean - scaleMeans[j]) / scaleStds[j];
+                    classWeights[j + 1] *= newStd / scaleStds[j];
+                }
+            }
+            scaleMeans[j] = newMean;
+            scaleStds[j] = newStd;
+        }
+    }
+
+    private void softmax(double[] features, double[] probabilities) {
+        double maxLogit = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < weights.length; c++) {
+            double logit = 0.0;
+            for (int j = 0; j < STRIDE; j++) {
+                logit += weights[c][j] * features[j];
+            }
+            probabilities[c] = logit;
+            maxLogit = Math.max(maxLogit, logit);
+        }
+        double sum = 0.0;
+        for (int c = 0; c < weights.length; c++) {
+            probabilities[c] = Math.exp(probabilities[c] - maxLogit);
+            sum += probabilities[c];
+        }
+        for (int c = 0; c < weights.length; c++) {
+            probabilities[c] /= sum;
+        }
+    }
+
+    private void publish() {
+        // Drift is still measured against the data the base model was trained on
+        ModelSnapshot snapshot = new ModelSnapshot(predictionService.nextVersion(), weights, scaleMeans, scaleStds,
+            Instant.now(), count, runningLoss, base.featureDistribution());
+        lastPublishedVersion = snapshot.getVersion();
+        lastPublishNanos = System.nanoTime();
+        if (!predictionService.activateIfCurrent(base, snapshot)) {
+            // Lost a race with another activation; the listener has already scheduled a rebase
+            log.info("Model changed while publishing online update; dropping {} updates", pendingUpdates);
+            discarded.add(pendingUpdates);
+            pendingUpdates = 0;
+            return;
+        }
+        log.info("Published online model version {} after {} updates (loss {})", snapshot.getVersion(),
+            pendingUpdates, runningLoss);
+        base = snapshot;
+        pendingUpdates = 0;
+        published.increment();
+        lastPublishedAt = Instant.now();
+    }
+
+    // Features in CreditData order followed by the label, or null if the outcome is incomplete
+    private static double[] toRow(TrainingData outcome) {
+        if (outcome == null || outcome.getAgeOfCredit() == null || outcome.getDerogatoryMarks() == null
+                || outcome.getFicoScore() == null || outcome.getMissedPayments() == null
+                || outcome.getCreditInquiries() == null || outcome.getTotalAccounts() == null
+                || outcome.getCreditLimit() == null || outcome.getIncome() == null
+                || outcome.getEligibilityClass() == null
+                || outcome.getEligibilityClass() < 0 || outcome.getEligibilityClass() >= PredictionResult.NUM_CLASSES) {
+            return null;
+        }
+        double[] row = new double[NUM_FEATURES + 1];
+        outcome.copyFeatures(row, 0);
+        row[NUM_FEATURES] = outcome.getEligibilityClass();
+        return row;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("received", received.sum());
+        stats.put("invalid", invalid.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("queued", queue.size());
+        stats.put("applied", applied.sum());
+        stats.put("discarded", discarded.sum());
+        stats.put("published", published.sum());
+        stats.put("lastPublishedVersion", lastPublishedVersion);
+        stats.put("lastPublishedAt", lastPublishedAt);
+        stats.put("runningLoss", lastLoss);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+    }
+}
@@ -0,0 +1,270 @@
+package com.credit.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Mini-batch softmax regression trainer that splits every batch across a fixed
+ * number of fork-join workers.
+ *
+ * Workers stream their share of a batch from the {@link TrainingDataSource} in
+ * small column blocks, so the data set never has to be resident in heap. Each
+ * worker owns its gradient accumulator and the partial gradients are summed in
+ * worker order, so a run is reproducible for a given seed and parallelism.
+ * Mini-batches are contiguous row ranges visited in a seeded random order.
+ */
+@Slf4j
+final class ParallelTrainer {
+    static final int BLOCK_SIZE = 4096;
+    private static final int NUM_FEATURES = TrainingDataSource.NUM_FEATURES;
+    private static final int STRIDE = NUM_FEATURES + 1; // bias + features
+
+    private final TrainingConfig config;
+    private final int numClasses;
+
+    ParallelTrainer(TrainingConfig config, int numClasses) {
+        this.config = config;
+        this.numClasses = numClasses;
+    }
+
+    static final class Result {
+        final double[][] weights;
+        final double loss;
+
+        Result(double[][] weights, double loss) {
+            this.weights = weights;
+            this.loss = loss;
+        }
+    }
+
+    /**
+     * Trains on {@code source}, scaling each block with the given parameters, starting
+     * from {@code weights}, which are updated in place. Throws {@link CancellationException}
+     * if the monitor asks to stop.
+     */
+    Result train(TrainingDataSource source, double[] featureMeans, double[] featureStds, double[][] weights,
+                 TrainingMonitor monitor) {
+        long numSamples = source.size();
+        int workers = config.effectiveParallelism();
+        long batchSize = config.getBatchSize() > 0 ? Math.min(config.getBatchSize(), numSamples) : numSamples;
+        int numBatches = (int) ((numSamples + batchSize - 1) / batchSize);
+        double learningRate = config.getLearningRate();
+        double lambda = config.getLambda();
+        Random random = config.getSeed() != null ? new Random(config.getSeed()) : new Random();
+
+        int[] batchOrder = new int[numBatches];
+        for (int i = 0; i < numBatches; i++) {
+            batchOrder[i] = i;
+        }
+
+        Worker[] scratch = new Worker[workers];
+        for (int w = 0; w < workers; w++) {
+            scratch[w] = new Worker();
+        }
+        double[] gradients = new double[numClasses * STRIDE];
+        double epochLoss = Double.NaN;
+        long rowsProcessed = 0;
+        monitor.onStart(numSamples, config.getEpochs());
+
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            for (int epoch = 0; epoch < config.getEpochs(); epoch++) {
+                shuffle(batchOrder, random);
+
+                double totalLoss = 0.0;
+                for (int b = 0; b < numBatches; b++) {
+                    if (monitor.isCancelled()) {
+                        throw new CancellationException("Training cancelled in epoch " + (epoch + 1));
+                    }
+                    long batchStart = batchOrder[b] * batchSize;
+                    long batchRows = Math.min(batchSize, numSamples - batchStart);
+
+                    // Add L2 regularization term to loss (with the weights the last batch starts from)
+                    if (b == numBatches - 1) {
+                        double regTerm = 0.0;
+                        for (int c = 0; c < numClasses; c++) {
+                            for (int j = 0; j < STRIDE; j++) {
+                                regTerm += weights[c][j] * weights[c][j];
+                            }
+                        }
+                        totalLoss += (lambda / 2) * regTerm;
+                    }
+
+                    pool.invoke(new GradientTask(source, featureMeans, featureStds, weights,
+                        batchStart, batchRows, scratch, 0, workers));
+
+                    // Deterministic reduction in worker order
+                    Arrays.fill(gradients, 0.0);
+                    for (Worker worker : scratch) {
+                        for (int k = 0; k < gradients.length; k++) {
+                            gradients[k] += worker.gradients[k];
+                        }
+                        totalLoss += worker.loss;
+                    }
+
+                    // Update weights with L2 regularization
+                    for (int c = 0; c < numClasses; c++) {
+                        for (int j = 0; j < STRIDE; j++) {
+                            weights[c][j] -= learningRate * (gradients[c * STRIDE + j] / batchRows + lambda * weights[c][j]);
+                        }
+                    }
+                    rowsProcessed += batchRows;
+                    monitor.onProgress(rowsProcessed);
+                }
+
+                epochLoss = totalLoss / numSamples;
+                monitor.onEpoch(epoch + 1, epochLoss);
+                if ((epoch + 1) % 10 == 0) {
+                    log.info("Epoch {}/{}, Loss: {}", epoch + 1, config.getEpochs(), epochLoss);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new Result(weights, epochLoss);
+    }
+
+    private static void shuffle(int[] order, Random random) {
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+    }
+
+    // Per-worker buffers, reused across batches and epochs
+    private final class Worker {
+        final double[][] columns = new double[NUM_FEATURES][BLOCK_SIZE];
+        final int[] labels = new int[BLOCK_SIZE];
+        final double[][] logits = new double[numClasses][BLOCK_SIZE];
+        final double[] gradients = new double[numClasses * STRIDE];
+        double loss;
+    }
+
+    private final class GradientTask extends RecursiveAction {
+        private final TrainingDataSource source;
+        private final double[] featureMeans;
+        private final double[] featureStds;
+        private final double[][] weights;
+        private final long batchStart;
+        private final long batchRows;
+        private final Worker[] workers;
+        private final int fromWorker;
+        private final int toWorker;
+
+        GradientTask(TrainingDataSource source, double[] featureMeans, double[] featureStds, double[][] weights,
+                     long batchStart, long batchRows, Worker[] workers, int fromWorker, int toWorker) {
+            this.source = source;
+            this.featureMeans = featureMeans;
+            this.featureStds = featureStds;
+            this.weights = weights;
+            this.batchStart = batchStart;
+            this.batchRows = batchRows;
+            this.workers = workers;
+            this.fromWorker = fromWorker;
+            this.toWorker = toWorker;
+        }
+
+        @Override
+        protected void compute() {
+            if (toWorker - fromWorker > 1) {
+                int mid = (fromWorker + toWorker) >>> 1;
+                invokeAll(
+                    new GradientTask(source, featureMeans, featureStds, weights, batchStart, batchRows,
+                        workers, fromWorker, mid),
+                    new GradientTask(source, featureMeans, featureStds, weights, batchStart, batchRows,
+                        workers, mid, toWorker));
+                return;
+            }
+
+            // Leaf: one worker's contiguous share of the batch
+            Worker worker = workers[fromWorker];
+            long from = batchStart + batchRows * fromWorker / workers.length;
+            long to = batchStart + batchRows * (fromWorker + 1) / workers.length;
+            Arrays.fill(worker.gradients, 0.0);
+            worker.loss = 0.0;
+            for (long start = from; start < to; start += BLOCK_SIZE) {
+                int rows = (int) Math.min(BLOCK_SIZE, to - start);
+                source.read(start, rows, worker.columns, worker.labels);
+                accumulate(worker, rows);
+            }
+        }
+
+        private void accumulate(Worker worker, int rows) {
+            double[][] columns = worker.columns;
+            double[][] logits = worker.logits;
+            int[] labels = worker.labels;
+            double[] gradients = worker.gradients;
+
+            // Scale features
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                double[] column = columns[j];
+                double mean = featureMeans[j];
+                double std = featureStds[j];
+                for (int r = 0; r < rows; r++) {
+                    column[r] = (column[r] - mean) / std;
+                }
+            }
+
+            // Logits, one column sweep per feature
+            for (int c = 0; c < numClasses; c++) {
+                double[] logit = logits[c];
+                double[] w = weights[c];
+                Arrays.fill(logit, 0, rows, w[0]);
+                for (int j = 0; j < NUM_FEATURES; j++) {
+                    double[] column = columns[j];
+                    double wj = w[j + 1];
+                    for (int r = 0; r < rows; r++) {
+                        logit[r] += wj * column[r];
+                    }
+                }
+            }
+
+            // Softmax with numerical stability, cross-entropy loss, then error in place of the logits
+            double loss = 0.0;
+            for (int r = 0; r < rows; r++) {
+                double maxLogit = Double.NEGATIVE_INFINITY;
+                for (int c = 0; c < numClasses; c++) {
+                    maxLogit = Math.max(maxLogit, logits[c][r]);
+                }
+                double sum = 0.0;
+                for (int c = 0; c < numClasses; c++) {
+                    double e = Math.exp(logits[c][r] - maxLogit);
+                    logits[c][r] = e;
+                    sum += e;
+                }
+                int trueClass = labels[r];
+                loss -= Math.log(logits[trueClass][r] / sum + 1e-15);
+                for (int c = 0; c < numClasses; c++) {
+                    logits[c][r] = logits[c][r] / sum - (c == trueClass ? 1.0 : 0.0);
+                }
+            }
+            worker.loss += loss;
+
+            // Gradients, again one column sweep per feature
+            for (int c = 0; c < numClasses; c++) {
+                double[] error = logits[c];
+                int offset = c * STRIDE;
+                double biasGradient = 0.0;
+                for (int r = 0; r < rows; r++) {
+                    biasGradient += error[r];
+                }
+                gradients[offset] += biasGradient;
+                for (int j = 0; j < NUM_FEATURES; j++) {
+                    double[] column = columns[j];
+                    double g = 0.0;
+                    for (int r = 0; r < rows; r++) {
+                        g += error[r] * column[r];
+                    }
+                    gradients[offset + j + 1] += g;
+                }
+            }
+        }
+    }
+}
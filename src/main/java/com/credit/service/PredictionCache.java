@@ -0,0 +1,326 @@
+package com.credit.service;
+
+import com.credit.model.CreditData;
+import com.credit.model.PredictionResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of production-model predictions and their explanations, keyed by a
+ * fixed-point encoding of the eight {@link CreditData} fields packed into two longs.
+ *
+ * The cache is split into independently locked LRU segments. Entries expire after a
+ * TTL, are tagged with the model version that produced them and are dropped when the
+ * production model changes. Applicants whose fields do not fit the key encoding are
+ * scored directly and counted as bypassed.
+ */
+@Slf4j
+@Service
+public class PredictionCache implements ModelChangeListener {
+    private static final int SEGMENTS = 16;
+
+    // Rough per-entry overhead on a 64-bit JVM with compressed oops: key, entry,
+    // probabilities array, LinkedHashMap node and table slot
+    private static final long ENTRY_BYTES = 32 + 40 + 40 + 40 + 8;
+
+    // Lookups encode into a per-thread key; a Key is only allocated when an entry is stored
+    private static final ThreadLocal<Key> PROBE = ThreadLocal.withInitial(Key::new);
+
+    private final CreditPredictionService predictionService;
+    private final GPTService gptService;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public PredictionCache(CreditPredictionService predictionService, GPTService gptService,
+                           @Value("${prediction.cache.enabled:true}") boolean enabled,
+                           @Value("${prediction.cache.max-size:10000}") int maxSize,
+                           @Value("${prediction.cache.ttl:10m}") Duration ttl) {
+        this.predictionService = predictionService;
+        this.gptService = gptService;
+        this.enabled = enabled && maxSize > 0;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        int segmentCapacity = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        predictionService.addModelChangeListener(this);
+    }
+
+    /**
+     * Scores with the production model, serving repeat applicants from the cache.
+     */
+    public PredictionResult predict(CreditData creditData, PredictionResult result) {
+        score(creditData, result);
+        return result;
+    }
+
+    // Same as predict; returns true if the result was served from the cache
+    boolean score(CreditData creditData, PredictionResult result) {
+        Key key = enabled ? probe(creditData) : null;
+        if (key == null) {
+            if (enabled) {
+                bypassed.increment();
+            }
+            predictionService.predictEligibility(creditData, result);
+            return false;
+        }
+
+        Entry entry = lookup(key);
+        if (entry != null) {
+            hits.increment();
+            entry.copyTo(result);
+            // Hits are production traffic as well; the key check above rules out missing values
+            predictionService.recordDrift(creditData);
+            return true;
+        }
+
+        misses.increment();
+        predictionService.predictEligibility(creditData, result);
+        Entry created = new Entry(result, System.nanoTime());
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key.copy(), created);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the explanation for a prediction made by {@link #predict}, building it
+     * once per cached entry. Results from any other model version are explained directly.
+     */
+    public String getExplanation(CreditData creditData, PredictionResult result) {
+        Key key = enabled ? probe(creditData) : null;
+        Entry entry = key != null ? lookup(key) : null;
+        if (entry == null || entry.modelVersion != result.getModelVersion()) {
+            return gptService.getCreditExplanation(creditData, result.getProbabilities());
+        }
+        String explanation = entry.explanation;
+        if (explanation == null) {
+            // Racing threads may both build it; the strings are identical
+            explanation = gptService.getCreditExplanation(creditData, entry.probabilities);
+            entry.explanation = explanation;
+        }
+        return explanation;
+    }
+
+    private static Key probe(CreditData creditData) {
+        Key probe = PROBE.get();
+        return probe.encode(creditData) ? probe : null;
+    }
+
+    private Entry lookup(Key key) {
+        Segment segment = segmentFor(key);
+        long now = System.nanoTime();
+        long currentVersion = predictionService.getModelSnapshot().getVersion();
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (now - entry.createdNanos > ttlNanos) {
+                segment.remove(key);
+                expirations.increment();
+                return null;
+            }
+            if (entry.modelVersion != currentVersion) {
+                // Scored just before a model change and stored after the invalidation
+                segment.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private Segment segmentFor(Key key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    @Override
+    public void onModelChanged(ModelSnapshot previous, ModelSnapshot current) {
+        clear();
+        invalidations.increment();
+        log.debug("Prediction cache cleared for model version {}", current.getVersion());
+    }
+
+    public Map<String, Object> getStats() {
+        long size = 0;
+        long explanationBytes = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+                for (Entry entry : segment.values()) {
+                    String explanation = entry.explanation;
+                    if (explanation != null) {
+                        // String header plus its Latin-1 byte array
+                        explanationBytes += 24 + 16 + explanation.length();
+                    }
+                }
+            }
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlNanos / 1_000_000_000L);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("bypassed", bypassed.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("estimatedBytes", size * ENTRY_BYTES + explanationBytes);
+        return stats;
+    }
+
+    /**
+     * Fixed-point encoding of the features. {@code high} packs age of credit in
+     * hundredths of a year (16 bits), FICO score (10 bits) and the four counts
+     * (8 bits each); {@code low} packs credit limit and income in cents (32 bits each).
+     *
+     * Only per-thread probes are re-encoded; keys stored in a map are copies and never change.
+     */
+    static final class Key {
+        private static final long MAX_HUNDREDTHS = (1L << 16) - 1;
+        private static final long MAX_CENTS = (1L << 32) - 1;
+        private static final int MAX_COUNT = (1 << 8) - 1;
+
+        private long high;
+        private long low;
+
+        private Key() {
+        }
+
+        private Key(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        // Returns null when a field is missing, out of range or finer than the key resolution
+        static Key of(CreditData data) {
+            Key key = new Key();
+            return key.encode(data) ? key : null;
+        }
+
+        // Encodes data into this key; false when it cannot be represented
+        boolean encode(CreditData data) {
+            if (data.getAgeOfCredit() == null || data.getDerogatoryMarks() == null || data.getFicoScore() == null
+                    || data.getMissedPayments() == null || data.getCreditInquiries() == null
+                    || data.getTotalAccounts() == null || data.getCreditLimit() == null || data.getIncome() == null) {
+                return false;
+            }
+            long age = fixedPoint(data.getAgeOfCredit(), MAX_HUNDREDTHS);
+            long limit = fixedPoint(data.getCreditLimit(), MAX_CENTS);
+            long income = fixedPoint(data.getIncome(), MAX_CENTS);
+            int fico = data.getFicoScore();
+            if (age < 0 || limit < 0 || income < 0 || fico < 0 || fico > 1023
+                    || !isCount(data.getDerogatoryMarks()) || !isCount(data.getMissedPayments())
+                    || !isCount(data.getCreditInquiries()) || !isCount(data.getTotalAccounts())) {
+                return false;
+            }
+            high = age << 42
+                | (long) fico << 32
+                | (long) data.getDerogatoryMarks() << 24
+                | (long) data.getMissedPayments() << 16
+                | (long) data.getCreditInquiries() << 8
+                | data.getTotalAccounts();
+            low = limit << 32 | income;
+            return true;
+        }
+
+        Key copy() {
+            return new Key(high, low);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && key.high == high && key.low == low;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(high) + Long.hashCode(low);
+        }
+
+        // Value in hundredths, or -1 if it cannot be represented exactly
+        private static long fixedPoint(double value, long max) {
+            double scaled = value * 100.0;
+            long rounded = Math.round(scaled);
+            if (!(value >= 0) || rounded > max || rounded / 100.0 != value) {
+                return -1;
+            }
+            return rounded;
+        }
+
+        private static boolean isCount(int value) {
+            return value >= 0 && value <= MAX_COUNT;
+        }
+    }
+
+    private static final class Entry {
+        final double[] probabilities;
+        final long modelVersion;
+        final long createdNanos;
+        volatile String explanation;
+
+        Entry(PredictionResult result, long createdNanos) {
+            this.probabilities = result.getProbabilities().clone();
+            this.modelVersion = result.getModelVersion();
+            this.createdNanos = createdNanos;
+        }
+
+        void copyTo(PredictionResult result) {
+            System.arraycopy(probabilities, 0, result.getProbabilities(), 0, probabilities.length);
+            result.resolvePredictedClass();
+            result.setModelVersion(modelVersion);
+        }
+    }
+
+    // Access-ordered map that drops its least recently used entry when full
+    private final class Segment extends LinkedHashMap<Key, Entry> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.credit.service;
+
+import com.credit.model.CreditData;
+import com.credit.model.PredictionResult;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scores newline-delimited {@link CreditData} records from a stream and writes one
+ * NDJSON result per input line, followed by a summary line.
+ *
+ * Input is read in fixed-size chunks, each chunk is scored with the batch kernel and
+ * its results are written and flushed before the next chunk is read. Memory is
+ * bounded by one chunk and one line buffer, and a slow reader of the output stalls
+ * reading of the input, so backpressure reaches the client through TCP.
+ */
+@Slf4j
+@Service
+public class StreamingScorer {
+    private static final String[] CLASSES = {"Low", "Medium", "High"};
+
+    private final CreditPredictionService predictionService;
+    private final PredictionMetrics metrics;
+    private final AuditLog auditLog;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader reader;
+    private final int chunkSize;
+    private final int maxLineLength;
+
+    public StreamingScorer(CreditPredictionService predictionService, PredictionMetrics metrics,
+                           AuditLog auditLog, ObjectMapper objectMapper,
+                           @Value("${prediction.stream.chunk-size:1024}") int chunkSize,
+                           @Value("${prediction.stream.max-line-length:65536}") int maxLineLength) {
+        this.predictionService = predictionService;
+        this.metrics = metrics;
+        this.auditLog = auditLog;
+        this.objectMapper = objectMapper;
+        this.reader = objectMapper.readerFor(CreditData.class);
+        this.chunkSize = chunkSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    public record Summary(long lines, long scored, long errors) {
+    }
+
+    public Summary score(InputStream in, OutputStream out) throws IOException {
+        LineReader lines = new LineReader(in, maxLineLength);
+        List<CreditData> chunk = new ArrayList<>(chunkSize);
+        long[] chunkLines = new long[chunkSize];
+        long lineNumber = 0;
+        long scored = 0;
+        long errors = 0;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            int length;
+            while ((length = lines.next()) != LineReader.EOF) {
+                lineNumber++;
+                if (length == LineReader.TOO_LONG) {
+                    writeError(generator, lineNumber, "Line exceeds " + maxLineLength + " bytes");
+                    errors++;
+                    continue;
+                }
+                if (isBlank(lines.buffer(), length)) {
+                    continue;
+                }
+                CreditData creditData;
+                try {
+                    creditData = reader.readValue(lines.buffer(), 0, length);
+                } catch (JsonProcessingException e) {
+                    writeError(generator, lineNumber, "Malformed record: " + e.getOriginalMessage());
+                    errors++;
+                    continue;
+                }
+                String missing = missingField(creditData);
+                if (missing != null) {
+                    writeError(generator, lineNumber, "Missing field: " + missing);
+                    errors++;
+                    continue;
+                }
+
+                chunkLines[chunk.size()] = lineNumber;
+                chunk.add(creditData);
+                if (chunk.size() == chunkSize) {
+                    scored += flushChunk(generator, chunk, chunkLines);
+                }
+            }
+            scored += flushChunk(generator, chunk, chunkLines);
+
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("summary");
+            generator.writeNumberField("lines", lineNumber);
+            generator.writeNumberField("scored", scored);
+            generator.writeNumberField("errors", errors);
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        log.info("Streamed {} lines: {} scored, {} errors", lineNumber, scored, errors);
+        return new Summary(lineNumber, scored, errors);
+    }
+
+    // Scores the buffered records, writes their results and flushes them to the client
+    private int flushChunk(JsonGenerator generator, List<CreditData> chunk, long[] chunkLines) throws IOException {
+        int size = chunk.size();
+        if (size > 0) {
+            ModelSnapshot snapshot = predictionService.getModelSnapshot();
+            double[][] probabilities = predictionService.predictEligibilityBatch(chunk, snapshot);
+            for (int i = 0; i < size; i++) {
+                double[] row = probabilities[i];
+                int predictedClass = PredictionResult.argmax(row);
+                metrics.recordPredictedClass(predictedClass);
+                auditLog.record("stream", chunk.get(i), row, predictedClass, snapshot.getVersion());
+                generator.writeStartObject();
+                generator.writeNumberField("line", chunkLines[i]);
+                generator.writeObjectFieldStart("probabilities");
+                generator.writeNumberField("low", row[0]);
+                generator.writeNumberField("medium", row[1]);
+                generator.writeNumberField("high", row[2]);
+                generator.writeEndObject();
+                generator.writeStringField("predictedClass", CLASSES[predictedClass]);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+            chunk.clear();
+        }
+        generator.flush();
+        return size;
+    }
+
+    private static void writeError(JsonGenerator generator, long lineNumber, String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("line", lineNumber);
+        generator.writeStringField("error", message);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static String missingField(CreditData data) {
+        if (data == null) return "record";
+        if (data.getAgeOfCredit() == null) return "ageOfCredit";
+        if (data.getDerogatoryMarks() == null) return "derogatoryMarks";
+        if (data.getFicoScore() == null) return "ficoScore";
+        if (data.getMissedPayments() == null) return "missedPayments";
+        if (data.getCreditInquiries() == null) return "creditInquiries";
+        if (data.getTotalAccounts() == null) return "totalAccounts";
+        if (data.getCreditLimit() == null) return "creditLimit";
+        if (data.getIncome() == null) return "income";
+        return null;
+    }
+
+    private static boolean isBlank(byte[] line, int length) {
+        for (int i = 0; i < length; i++) {
+            if (line[i] != ' ' && line[i] != '\t' && line[i] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits a byte stream on '\n' into a reusable line buffer of bounded size.
+     * Over-long lines are skipped up to the next newline and reported as {@link #TOO_LONG}.
+     */
+    private static final class LineReader {
+        static final int EOF = -1;
+        static final int TOO_LONG = -2;
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[64 * 1024];
+        private final byte[] line;
+        private int position;
+        private int limit;
+
+        LineReader(InputStream in, int maxLineLength) {
+            this.in = in;
+            this.line = new byte[maxLineLength];
+        }
+
+        byte[] buffer() {
+            return line;
+        }
+
+        // Returns the length of the next line (without the newline), EOF or TOO_LONG
+        int next() throws IOException {
+            int length = 0;
+            boolean tooLong = false;
+            boolean readAny = false;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        if (!readAny) {
+                            return EOF;
+                        }
+                        break; // last line without a trailing newline
+                    }
+                }
+                readAny = true;
+                byte b = buffer[position++];
+                if (b == '\n') {
+                    break;
+                }
+                if (length < line.length) {
+                    line[length++] = b;
+                } else {
+                    tooLong = true;
+                }
+            }
+            return tooLong ? TOO_LONG : length;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.credit.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Generates large synthetic training sets with the same distribution and labeling
+ * rules as {@link ModelTrainingService#generateSampleData(int, long)}, in parallel
+ * and straight into primitive columns or a {@link ColumnarTrainingFile}.
+ *
+ * Rows are produced in fixed blocks of {@value #BLOCK_ROWS}. Block {@code b} draws
+ * from the {@code b}-th stream split off a {@link SplittableRandom} seeded with the
+ * given seed, so the output depends only on the seed and row count, never on the
+ * number of threads or the order in which blocks finish.
+ *
+ * Usage: {@code SyntheticDataGenerator <output.ctd> <rows> [seed] [threads]}
+ */
+@Slf4j
+public final class SyntheticDataGenerator {
+    static final int BLOCK_ROWS = 1 << 16;
+    private static final int NUM_FEATURES = TrainingDataSource.NUM_FEATURES;
+
+    private SyntheticDataGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 4) {
+            System.err.println("Usage: SyntheticDataGenerator <output.ctd> <rows> [seed] [threads]");
+            System.exit(2);
+        }
+        long rows = Long.parseLong(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        writeFile(Paths.get(args[0]), rows, seed, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Generated %d rows into %s in %.1f s (%.0f rows/s)%n", rows, args[0], seconds, rows / seconds);
+    }
+
+    /**
+     * In-heap columnar data set: one {@code double[]} per feature and one byte per label.
+     */
+    public static final class Columns implements TrainingDataSource {
+        private final double[][] columns;
+        private final byte[] labels;
+
+        private Columns(int rows) {
+            this.columns = new double[NUM_FEATURES][rows];
+            this.labels = new byte[rows];
+        }
+
+        @Override
+        public long size() {
+            return labels.length;
+        }
+
+        @Override
+        public void read(long fromRow, int count, double[][] columns, int[] labels) {
+            int from = (int) fromRow;
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                System.arraycopy(this.columns[j], from, columns[j], 0, count);
+            }
+            for (int r = 0; r < count; r++) {
+                labels[r] = this.labels[from + r];
+            }
+        }
+
+        public double[] getColumn(int feature) {
+            return columns[feature];
+        }
+
+        public byte[] getLabels() {
+            return labels;
+        }
+    }
+
+    /**
+     * Generates {@code rows} rows into heap columns using up to {@code threads} threads.
+     */
+    public static Columns generate(int rows, long seed, int threads) {
+        Columns data = new Columns(rows);
+        SplittableRandom[] streams = blockStreams(rows, seed);
+        List<Callable<Void>> tasks = new ArrayList<>(streams.length);
+        for (int b = 0; b < streams.length; b++) {
+            int from = b * BLOCK_ROWS;
+            int count = Math.min(BLOCK_ROWS, rows - from);
+            SplittableRandom random = streams[b];
+            tasks.add(() -> {
+                fillBlock(random, data.columns, data.labels, from, count, new double[NUM_FEATURES]);
+                return null;
+            });
+        }
+        runAll(tasks, threads);
+        return data;
+    }
+
+    /**
+     * Generates {@code rows} rows straight into a {@link ColumnarTrainingFile} at
+     * {@code output}, using up to {@code threads} threads. Each block is written to its
+     * final offsets, so no row is held in memory beyond its block. The file is replaced
+     * atomically.
+     */
+    public static void writeFile(Path output, long rows, long seed, int threads) throws IOException {
+        Path dir = output.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = output.resolveSibling(output.getFileName() + ".tmp");
+        SplittableRandom[] streams = blockStreams(rows, seed);
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, ColumnarTrainingFile.header(rows), 0);
+
+            // Per-thread block buffers; pool threads live only for this call
+            ThreadLocal<BlockBuffer> buffers = ThreadLocal.withInitial(BlockBuffer::new);
+            List<Callable<Void>> tasks = new ArrayList<>(streams.length);
+            for (int b = 0; b < streams.length; b++) {
+                long from = (long) b * BLOCK_ROWS;
+                int count = (int) Math.min(BLOCK_ROWS, rows - from);
+                SplittableRandom random = streams[b];
+                tasks.add(() -> {
+                    BlockBuffer buffer = buffers.get();
+                    fillBlock(random, buffer.columns, buffer.labels, 0, count, buffer.row);
+                    buffer.write(channel, rows, from, count);
+                    return null;
+                });
+            }
+            runAll(tasks, threads);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Generated training file {} with {} rows", output, rows);
+    }
+
+    // One independent stream per block, split in block order so the result is thread-count independent
+    private static SplittableRandom[] blockStreams(long rows, long seed) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("Row count must not be negative: " + rows);
+        }
+        long blocks = (rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        if (blocks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many rows: " + rows);
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[(int) blocks];
+        for (int b = 0; b < streams.length; b++) {
+            streams[b] = root.split();
+        }
+        return streams;
+    }
+
+    private static void fillBlock(SplittableRandom random, double[][] columns, byte[] labels, int offset, int count,
+                                  double[] row) {
+        for (int r = offset; r < offset + count; r++) {
+            labels[r] = (byte) ModelTrainingService.generateRow(random, row);
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                columns[j][r] = row[j];
+            }
+        }
+    }
+
+    private static void runAll(List<Callable<Void>> tasks, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating data", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Failed to generate data", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    // Scratch for one block, reused by a pool thread across blocks
+    private static final class BlockBuffer {
+        final double[][] columns = new double[NUM_FEATURES][BLOCK_ROWS];
+        final byte[] labels = new byte[BLOCK_ROWS];
+        final double[] row = new double[NUM_FEATURES];
+        final ByteBuffer bytes = ByteBuffer.allocate(BLOCK_ROWS * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        // Positional writes of disjoint ranges, so blocks can be written concurrently
+        void write(FileChannel channel, long rows, long fromRow, int count) throws IOException {
+            for (int j = 0; j < NUM_FEATURES; j++) {
+                bytes.clear();
+                bytes.asDoubleBuffer().put(columns[j], 0, count);
+                bytes.limit(count * Double.BYTES);
+                writeFully(channel, bytes, ColumnarTrainingFile.columnOffset(j, rows) + fromRow * Double.BYTES);
+            }
+            writeFully(channel, ByteBuffer.wrap(labels, 0, count), ColumnarTrainingFile.labelOffset(rows) + fromRow);
+        }
+    }
+}
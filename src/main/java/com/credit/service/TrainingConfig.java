@@ -0,0 +1,32 @@
+package com.credit.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Hyperparameters for a training run. The defaults reproduce the original
+ * full-batch gradient descent (learning rate 0.01, 100 epochs, L2 lambda 0.01).
+ */
+@Value
+@Builder(toBuilder = true)
+public class TrainingConfig {
+    @Builder.Default
+    double learningRate = 0.01;
+    @Builder.Default
+    int epochs = 100;
+    @Builder.Default
+    double lambda = 0.01; // L2 regularization parameter
+    @Builder.Default
+    int batchSize = 0; // 0 = full batch
+    @Builder.Default
+    int parallelism = 0; // 0 = all available cores
+    Long seed; // null = non-reproducible random initialization
+
+    public static TrainingConfig defaults() {
+        return builder().build();
+    }
+
+    public int effectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,147 @@
+package com.credit.service;
+
+import com.credit.model.TrainingData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Converts CSV or JSON-lines training data into a {@link ColumnarTrainingFile}
+ * in a single streaming pass.
+ *
+ * CSV input needs a header row naming the eight CreditData fields and
+ * {@code eligibilityClass} (camelCase or snake_case, any order). JSON-lines input
+ * holds one TrainingData object per line.
+ *
+ * Usage: {@code TrainingDataImporter <input.csv|input.jsonl> <output.ctd>}
+ */
+@Slf4j
+public final class TrainingDataImporter {
+    private static final String[] FEATURE_COLUMNS = {
+        "ageofcredit", "derogatorymarks", "ficoscore", "missedpayments",
+        "creditinquiries", "totalaccounts", "creditlimit", "income"
+    };
+    private static final String LABEL_COLUMN = "eligibilityclass";
+
+    private TrainingDataImporter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: TrainingDataImporter <input.csv|input.jsonl> <output.ctd>");
+            System.exit(2);
+        }
+        long rows = importFile(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Imported " + rows + " rows into " + args[1]);
+    }
+
+    public static long importFile(Path input, Path output) throws IOException {
+        String name = input.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return importCsv(input, output);
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return importJsonLines(input, output);
+        }
+        throw new IllegalArgumentException("Unsupported training data format: " + input);
+    }
+
+    public static long importCsv(Path input, Path output) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             ColumnarTrainingFile.Writer writer = ColumnarTrainingFile.writer(output)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IOException("Empty CSV file: " + input);
+            }
+
+            // Map each required column to its position in the header
+            String[] header = headerLine.split(",");
+            int[] featureIndex = new int[FEATURE_COLUMNS.length];
+            int labelIndex = -1;
+            Arrays.fill(featureIndex, -1);
+            for (int i = 0; i < header.length; i++) {
+                String column = normalize(header[i]);
+                for (int j = 0; j < FEATURE_COLUMNS.length; j++) {
+                    if (FEATURE_COLUMNS[j].equals(column)) {
+                        featureIndex[j] = i;
+                    }
+                }
+                if (LABEL_COLUMN.equals(column)) {
+                    labelIndex = i;
+                }
+            }
+            for (int j = 0; j < FEATURE_COLUMNS.length; j++) {
+                if (featureIndex[j] < 0) {
+                    throw new IOException("CSV header is missing column " + FEATURE_COLUMNS[j]);
+                }
+            }
+            if (labelIndex < 0) {
+                throw new IOException("CSV header is missing column " + LABEL_COLUMN);
+            }
+
+            double[] features = new double[FEATURE_COLUMNS.length];
+            String line;
+            long lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] values = line.split(",", -1);
+                int eligibilityClass;
+                try {
+                    for (int j = 0; j < features.length; j++) {
+                        features[j] = Double.parseDouble(values[featureIndex[j]].trim());
+                    }
+                    eligibilityClass = Integer.parseInt(values[labelIndex].trim());
+                } catch (RuntimeException e) {
+                    throw new IOException("Invalid CSV row at line " + lineNumber + ": " + e.getMessage(), e);
+                }
+                writer.append(features, eligibilityClass);
+            }
+            writer.finish();
+            log.info("Imported {} CSV rows from {}", writer.getRows(), input);
+            return writer.getRows();
+        }
+    }
+
+    public static long importJsonLines(Path input, Path output) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             ColumnarTrainingFile.Writer writer = ColumnarTrainingFile.writer(output)) {
+            double[] features = new double[FEATURE_COLUMNS.length];
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                int eligibilityClass;
+                try {
+                    TrainingData data = mapper.readValue(line, TrainingData.class);
+                    data.copyFeatures(features, 0);
+                    eligibilityClass = data.getEligibilityClass();
+                } catch (IOException | RuntimeException e) {
+                    throw new IOException("Invalid JSON row at line " + lineNumber + ": " + e.getMessage(), e);
+                }
+                writer.append(features, eligibilityClass);
+            }
+            writer.finish();
+            log.info("Imported {} JSON rows from {}", writer.getRows(), input);
+            return writer.getRows();
+        }
+    }
+
+    private static String normalize(String column) {
+        return column.trim().replace("_", "").replace("\"", "").toLowerCase(Locale.ROOT);
+    }
+}
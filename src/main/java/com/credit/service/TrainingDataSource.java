@@ -0,0 +1,18 @@
+package com.credit.service;
+
+/**
+ * Row source for training. Implementations copy raw (unscaled) features into
+ * caller-owned column buffers so that the trainer can stream over data sets that
+ * do not fit in heap. Reads of disjoint ranges may happen concurrently.
+ */
+public interface TrainingDataSource {
+    int NUM_FEATURES = 8;
+
+    long size();
+
+    /**
+     * Copies rows {@code [fromRow, fromRow + count)} into {@code columns[feature][0..count)}
+     * and their eligibility classes into {@code labels[0..count)}.
+     */
+    void read(long fromRow, int count, double[][] columns, int[] labels);
+}
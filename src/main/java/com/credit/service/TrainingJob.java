@@ -0,0 +1,112 @@
+package com.credit.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Future;
+
+/**
+ * State of one asynchronous training run, updated by the training thread and read
+ * by status requests. Fields are volatile so readers always see recent progress.
+ */
+@Getter
+public class TrainingJob implements TrainingMonitor {
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id;
+    private final String description;
+    private final Instant submittedAt = Instant.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile long rows;
+    private volatile int epochs;
+    private volatile int epoch;
+    private volatile double loss = Double.NaN;
+    private volatile long rowsProcessed;
+    private volatile long modelVersion;
+    private volatile String error;
+
+    @Getter(AccessLevel.NONE)
+    private volatile boolean cancelRequested;
+    @Getter(AccessLevel.NONE)
+    private volatile Future<?> future;
+
+    TrainingJob(String id, String description) {
+        this.id = id;
+        this.description = description;
+    }
+
+    public double getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0.0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = Duration.between(start, end).toNanos() / 1e9;
+        return seconds > 0 ? rowsProcessed / seconds : 0.0;
+    }
+
+    // Estimated seconds left, or null while no rate is known yet or the job is finished
+    public Double getEtaSeconds() {
+        double rate = getRowsPerSecond();
+        if (status != Status.RUNNING || rate <= 0) {
+            return null;
+        }
+        long totalRows = rows * epochs;
+        return Math.max(0, totalRows - rowsProcessed) / rate;
+    }
+
+    @Override
+    public void onStart(long rows, int epochs) {
+        this.rows = rows;
+        this.epochs = epochs;
+    }
+
+    @Override
+    public void onProgress(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    @Override
+    public void onEpoch(int epoch, double loss) {
+        this.epoch = epoch;
+        this.loss = loss;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isCancelled() {
+        return cancelRequested;
+    }
+
+    void markRunning() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void markFinished(Status finalStatus, String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+
+    void setModelVersion(long modelVersion) {
+        this.modelVersion = modelVersion;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    Future<?> future() {
+        return future;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+}
@@ -0,0 +1,162 @@
+package com.credit.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs model training as background jobs on a dedicated, bounded executor so that
+ * a retrain never occupies HTTP worker threads. Each job's fork-join trainer is
+ * limited to the configured core budget.
+ */
+@Slf4j
+@Service
+public class TrainingJobService {
+    private static final int MAX_RETAINED_JOBS = 50;
+
+    private final ModelTrainingService modelTrainingService;
+    private final ModelRegistry modelRegistry;
+    private final int cpuBudget;
+    private final Path dataDir;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, TrainingJob> jobs = new ConcurrentHashMap<>();
+
+    public TrainingJobService(ModelTrainingService modelTrainingService,
+                              ModelRegistry modelRegistry,
+                              @Value("${model.training.jobs.max-concurrent:1}") int maxConcurrent,
+                              @Value("${model.training.jobs.queue-capacity:4}") int queueCapacity,
+                              @Value("${model.training.jobs.cpu-budget:0}") int cpuBudget,
+                              @Value("${model.training.data-dir:data}") String dataDir) {
+        this.modelTrainingService = modelTrainingService;
+        this.modelRegistry = modelRegistry;
+        this.dataDir = Paths.get(dataDir);
+        // Default to half the cores so serving always keeps the other half
+        this.cpuBudget = cpuBudget > 0 ? cpuBudget : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "training-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        log.info("Training jobs: {} concurrent, queue {}, {} cores per job", maxConcurrent, queueCapacity, this.cpuBudget);
+    }
+
+    /**
+     * Trains on generated sample data. Without a candidate name the result is promoted
+     * straight to production; with one it is only registered under that name.
+     */
+    public TrainingJob submitSampleDataTraining(String candidateName) {
+        return submit("sample data", candidateName,
+            job -> modelTrainingService.trainModelWithSampleData(job, cpuBudget, candidateName == null));
+    }
+
+    /**
+     * Trains on a columnar file under {@code model.training.data-dir}. Paths outside that
+     * directory are rejected with an {@link IllegalArgumentException}.
+     */
+    public TrainingJob submitFileTraining(String path, String candidateName) {
+        Path dataFile = ConfinedPaths.resolve(dataDir, path);
+        return submit("file " + dataFile, candidateName,
+            job -> modelTrainingService.trainModelFromFile(dataFile, job, cpuBudget, candidateName == null));
+    }
+
+    public Optional<TrainingJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<TrainingJob> getJobs() {
+        List<TrainingJob> result = new ArrayList<>(jobs.values());
+        result.sort(Comparator.comparing(TrainingJob::getSubmittedAt).reversed());
+        return result;
+    }
+
+    public Optional<TrainingJob> cancel(String id) {
+        TrainingJob job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.requestCancel();
+        // A queued job never starts; a running one stops at the next mini-batch
+        if (job.getStatus() == TrainingJob.Status.QUEUED && job.future() != null && job.future().cancel(false)) {
+            job.markFinished(TrainingJob.Status.CANCELLED, null);
+        }
+        return Optional.of(job);
+    }
+
+    private TrainingJob submit(String description, String candidateName, JobBody body) {
+        TrainingJob job = new TrainingJob(UUID.randomUUID().toString(), description);
+        evictFinishedJobs();
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job, candidateName, body)));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        log.info("Submitted training job {} ({})", job.getId(), description);
+        return job;
+    }
+
+    private void run(TrainingJob job, String candidateName, JobBody body) {
+        if (job.isCancelled()) {
+            job.markFinished(TrainingJob.Status.CANCELLED, null);
+            return;
+        }
+        job.markRunning();
+        try {
+            ModelSnapshot trained = body.run(job);
+            if (candidateName != null) {
+                modelRegistry.register(candidateName, trained);
+            }
+            job.setModelVersion(trained.getVersion());
+            job.markFinished(TrainingJob.Status.COMPLETED, null);
+            log.info("Training job {} completed", job.getId());
+        } catch (CancellationException e) {
+            job.markFinished(TrainingJob.Status.CANCELLED, null);
+            log.info("Training job {} cancelled", job.getId());
+        } catch (Exception e) {
+            job.markFinished(TrainingJob.Status.FAILED, e.getMessage());
+            log.error("Training job {} failed: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void evictFinishedJobs() {
+        if (jobs.size() < MAX_RETAINED_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+            .filter(job -> job.getFinishedAt() != null)
+            .sorted(Comparator.comparing(TrainingJob::getFinishedAt))
+            .limit(jobs.size() - MAX_RETAINED_JOBS + 1)
+            .forEach(job -> jobs.remove(job.getId()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(TrainingJob::requestCancel);
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface JobBody {
+        ModelSnapshot run(TrainingJob job) throws Exception;
+    }
+}
@@ -0,0 +1,24 @@
+package com.credit.service;
+
+/**
+ * Receives progress callbacks from a training run and lets the caller stop it.
+ * Callbacks arrive on the training thread, so implementations must be cheap.
+ */
+public interface TrainingMonitor {
+    TrainingMonitor NONE = new TrainingMonitor() {
+    };
+
+    default void onStart(long rows, int epochs) {
+    }
+
+    // Called after every mini-batch with the number of rows processed so far in this run
+    default void onProgress(long rowsProcessed) {
+    }
+
+    default void onEpoch(int epoch, double loss) {
+    }
+
+    default boolean isCancelled() {
+        return false;
+    }
+}
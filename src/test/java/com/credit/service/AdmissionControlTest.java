@@ -0,0 +1,143 @@
+package com.credit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlTest {
+    @Test
+    void rejectsRequestsOverTheLimitUntilASlotIsReleased() {
+        AdmissionControl control = control(4, Duration.ofSeconds(1), Duration.ZERO);
+        List<AdmissionControl.Permit> permits = acquire(control, AdmissionControl.Priority.INTERACTIVE, 4);
+
+        assertThat(control.tryAcquire(AdmissionControl.Priority.INTERACTIVE)).isNull();
+        permits.get(0).release();
+        permits.get(0).release(); // only the first release frees a slot
+
+        assertThat(control.tryAcquire(AdmissionControl.Priority.INTERACTIVE)).isNotNull();
+        assertThat(control.tryAcquire(AdmissionControl.Priority.INTERACTIVE)).isNull();
+        assertThat(control.getStats()).containsEntry("inFlight", 4);
+    }
+
+    @Test
+    void bulkRequestsGetTheirShareOnly() {
+        AdmissionControl control = control(8, Duration.ofSeconds(1), Duration.ofSeconds(1));
+        acquire(control, AdmissionControl.Priority.BATCH, 4);
+
+        long start = System.nanoTime();
+        assertThat(control.tryAcquire(AdmissionControl.Priority.BATCH)).isNull();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).as("bulk requests never wait")
+            .isLessThan(Duration.ofMillis(500));
+        assertThat(control.tryAcquire(AdmissionControl.Priority.INTERACTIVE)).isNotNull();
+    }
+
+    @Test
+    void interactiveRequestsWaitForASlot() throws InterruptedException {
+        AdmissionControl control = control(1, Duration.ofSeconds(1), Duration.ofSeconds(5));
+        AdmissionControl.Permit held = control.tryAcquire(AdmissionControl.Priority.INTERACTIVE);
+
+        Thread releaser = new Thread(() -> {
+            sleep(50);
+            held.release();
+        });
+        releaser.start();
+
+        assertThat(control.tryAcquire(AdmissionControl.Priority.INTERACTIVE)).isNotNull();
+        releaser.join();
+    }
+
+    @Test
+    void limitGrowsWhileFastAndBacksOffWhenSlow() {
+        AdmissionControl control = control(10, Duration.ofMillis(200), Duration.ZERO);
+
+        for (int round = 0; round < 5; round++) {
+            acquire(control, AdmissionControl.Priority.INTERACTIVE, limit(control))
+                .forEach(AdmissionControl.Permit::release);
+        }
+        int grown = limit(control);
+        assertThat(grown).isGreaterThan(10);
+
+        AdmissionControl.Permit slow = control.tryAcquire(AdmissionControl.Priority.INTERACTIVE);
+        sleep(300);
+        slow.release();
+        assertThat(limit(control)).isLessThan(grown);
+    }
+
+    @Test
+    void neverAdmitsMoreThanTheLimitConcurrently() throws InterruptedException {
+        // Fast requests grow the limit, so pin it
+        AdmissionControl control = new AdmissionControl(new SimpleMeterRegistry(), true, 3, 3, 3,
+            Duration.ofSeconds(1), 0.5, 0.5, Duration.ofMillis(1), Duration.ofSeconds(1));
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    AdmissionControl.Permit permit = control.tryAcquire(AdmissionControl.Priority.INTERACTIVE);
+                    if (permit != null) {
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        admitted.incrementAndGet();
+                        Thread.yield();
+                        active.decrementAndGet();
+                        permit.release();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(maxActive.get()).isBetween(1, 3);
+        assertThat(admitted.get()).isPositive();
+        assertThat(control.getStats()).containsEntry("inFlight", 0);
+    }
+
+    private static AdmissionControl control(int limit, Duration targetLatency, Duration maxWait) {
+        return new AdmissionControl(new SimpleMeterRegistry(), true, limit, 1, 100, targetLatency, 0.5, 0.5,
+            maxWait, Duration.ofSeconds(1));
+    }
+
+    private static List<AdmissionControl.Permit> acquire(AdmissionControl control, AdmissionControl.Priority priority,
+                                                         int count) {
+        List<AdmissionControl.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            AdmissionControl.Permit permit = control.tryAcquire(priority);
+            assertThat(permit).as("permit %d", i).isNotNull();
+            permits.add(permit);
+        }
+        return permits;
+    }
+
+    private static int limit(AdmissionControl control) {
+        Map<String, Object> stats = control.getStats();
+        return (int) stats.get("limit");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.credit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssessmentServiceTest {
+    @TempDir
+    Path dir;
+
+    private CreditPredictionService predictionService;
+    private ModelRegistry modelRegistry;
+    private PredictionCache predictionCache;
+    private ExplanationService explanationService;
+    private GPTService gptService;
+    private AuditLog auditLog;
+
+    @BeforeEach
+    void setUp() {
+        predictionService = new CreditPredictionService(dir.resolve("models/credit_predictor.model").toString());
+        gptService = new GPTService("test-key");
+        predictionCache = new PredictionCache(predictionService, gptService, true, 100, Duration.ofMinutes(10));
+        modelRegistry = new ModelRegistry(predictionService, predictionCache, PredictionMetrics.noop(), 1, 16,
+            dir.resolve("models").toString());
+        explanationService = new ExplanationService(null, gptService, new ObjectMapper(), false, 1, 16, 100, false,
+            5, Duration.ofMinutes(1));
+        auditLog = new AuditLog(new SimpleMeterRegistry(), true, dir.resolve("audit").toString(), 1 << 20,
+            Duration.ofMillis(10), 1024, AuditLog.OverflowPolicy.BLOCK, Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        explanationService.shutdown();
+        modelRegistry.shutdown();
+        predictionService.shutdown();
+        auditLog.shutdown();
+    }
+
+    @Test
+    void returnsEveryPartWithinTheDeadline() {
+        AssessmentService service = service(Duration.ofSeconds(5), 4);
+        try {
+            AssessmentService.Assessment assessment = service.assess(ModelRegistryTest.applicant(), null, 3, null);
+
+            assertThat(assessment.incomplete()).isEmpty();
+            assertThat(assessment.explanation()).contains("Credit Profile Analysis");
+            assertThat(assessment.recommendations()).isNotNull();
+            assertThat(assessment.cards()).isEmpty(); // no catalog file
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void auditsDecisionsWhoseSubtasksMissTheDeadline() throws Exception {
+        AssessmentService service = service(Duration.ZERO, 1);
+        try {
+            AssessmentService.Assessment assessment = service.assess(ModelRegistryTest.applicant(), null, 3, null);
+
+            // Whichever subtasks missed the deadline, the audit record is never one of them
+            assertThat(assessment.incomplete()).doesNotContainKey("audit");
+        } finally {
+            service.shutdown();
+        }
+        auditLog.shutdown();
+
+        try (Stream<Path> segments = Files.list(dir.resolve("audit"))) {
+            List<String> lines = segments.flatMap(segment -> {
+                try {
+                    return Files.readAllLines(segment).stream();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).toList();
+            assertThat(lines).singleElement().asString().contains("\"source\":\"assess\"");
+        }
+    }
+
+    private AssessmentService service(Duration deadline, int threads) {
+        CardCatalog cardCatalog = new CardCatalog(dir.resolve("no-cards.json").toString());
+        return new AssessmentService(modelRegistry, predictionCache, explanationService, cardCatalog, gptService,
+            PredictionMetrics.noop(), auditLog, deadline, threads, 1, false);
+    }
+}
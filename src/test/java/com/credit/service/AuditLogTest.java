@@ -0,0 +1,90 @@
+package com.credit.service;
+
+import com.credit.model.CreditData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesEveryRecordAsOneLineAcrossSegments() throws Exception {
+        AuditLog auditLog = auditLog(4096);
+        CreditData applicant = ModelRegistryTest.applicant();
+        int records = 200;
+        for (int i = 0; i < records; i++) {
+            auditLog.record("predict", applicant, new double[]{0.2, 0.3, 0.5}, 2, i);
+        }
+        auditLog.shutdown();
+
+        List<JsonNode> lines = readRecords();
+        assertThat(lines).hasSize(records);
+        assertThat(lines).extracting(line -> line.get("modelVersion").asLong())
+            .containsExactlyElementsOf(Stream.iterate(0L, v -> v + 1).limit(records).toList());
+        assertThat(lines.get(0).get("predictedClass").asText()).isEqualTo("High");
+        assertThat(lines.get(0).get("input").get("ficoScore").asInt()).isEqualTo(720);
+        assertThat((long) auditLog.getStats().get("segments")).isGreaterThan(1);
+        assertThat(auditLog.getStats()).containsEntry("written", (long) records).containsEntry("dropped", 0L);
+    }
+
+    @Test
+    void recordsMissingInputsAsNull() throws Exception {
+        AuditLog auditLog = auditLog(1 << 20);
+        CreditData applicant = ModelRegistryTest.applicant();
+        applicant.setFicoScore(null);
+
+        auditLog.record("recommend", applicant, new double[]{1.0, 0.0, 0.0}, 0, 7);
+        auditLog.shutdown();
+
+        JsonNode record = readRecords().get(0);
+        assertThat(record.get("source").asText()).isEqualTo("recommend");
+        assertThat(record.get("input").get("ficoScore").isNull()).isTrue();
+    }
+
+    @Test
+    void recordsNullInputsWithAllFieldsNull() throws Exception {
+        AuditLog auditLog = auditLog(1 << 20);
+
+        // What /predict/batch passes for a null array element
+        auditLog.record("batch", null, new double[]{1.0, 0.0, 0.0}, 0, 7);
+        auditLog.shutdown();
+
+        JsonNode input = readRecords().get(0).get("input");
+        assertThat(input.size()).isEqualTo(8);
+        input.forEach(field -> assertThat(field.isNull()).isTrue());
+        assertThat(auditLog.getStats()).containsEntry("written", 1L);
+    }
+
+    private AuditLog auditLog(long segmentSize) {
+        return new AuditLog(new SimpleMeterRegistry(), true, dir.toString(), segmentSize, Duration.ofMillis(10),
+            1024, AuditLog.OverflowPolicy.BLOCK, Duration.ofSeconds(1));
+    }
+
+    private List<JsonNode> readRecords() throws IOException {
+        List<JsonNode> records = new ArrayList<>();
+        try (Stream<Path> segments = Files.list(dir)) {
+            for (Path segment : segments.sorted().toList()) {
+                for (String line : Files.readAllLines(segment)) {
+                    records.add(MAPPER.readTree(line));
+                }
+            }
+        }
+        return records;
+    }
+}
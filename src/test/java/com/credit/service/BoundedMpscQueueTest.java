@@ -0,0 +1,86 @@
+package com.credit.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedMpscQueueTest {
+    @Test
+    void rejectsOffersWhenFull() {
+        BoundedMpscQueue<Integer> queue = new BoundedMpscQueue<>(4);
+        for (int i = 0; i < queue.capacity(); i++) {
+            assertThat(queue.offer(i)).isTrue();
+        }
+        assertThat(queue.offer(99)).isFalse();
+
+        assertThat(queue.poll()).isZero();
+        assertThat(queue.offer(4)).isTrue();
+        assertThat(queue.size()).isEqualTo(queue.capacity());
+    }
+
+    @Test
+    void deliversEveryAcceptedElementOnceInProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 20_000;
+        BoundedMpscQueue<Integer> queue = new BoundedMpscQueue<>(256);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    // Spin until accepted; a rejection must leave the queue unchanged
+                    while (!queue.offer(producer * perProducer + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        BitSet seen = new BitSet(producers * perProducer);
+        int[] last = new int[producers];
+        Arrays.fill(last, -1);
+        int received = 0;
+        int duplicates = 0;
+        int reordered = 0;
+        while (received < producers * perProducer) {
+            Integer value = queue.poll();
+            if (value == null) {
+                Thread.yield();
+                continue;
+            }
+            if (seen.get(value)) {
+                duplicates++;
+            }
+            seen.set(value);
+            int producer = value / perProducer;
+            if (value % perProducer <= last[producer]) {
+                reordered++;
+            }
+            last[producer] = value % perProducer;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(duplicates).isZero();
+        assertThat(reordered).isZero();
+        assertThat(seen.cardinality()).isEqualTo(producers * perProducer);
+        assertThat(queue.poll()).isNull();
+    }
+}
@@ -0,0 +1,46 @@
+package com.credit.service;
+
+import com.credit.model.CreditCard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CardCatalogTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void recommendsCardsTheApplicantQualifiesFor() throws IOException {
+        CardCatalog catalog = catalog();
+
+        assertThat(catalog.recommend(760, 2, null, 3)).extracting(CreditCard::getName)
+            .containsExactlyInAnyOrder("Starter", "Everyday", "Premium");
+        assertThat(catalog.recommend(650, 0, null, 3)).extracting(CreditCard::getName)
+            .containsExactlyInAnyOrder("Starter", "Everyday");
+        assertThat(catalog.recommend(760, 2, "travel", 3)).extracting(CreditCard::getName)
+            .containsExactly("Premium");
+    }
+
+    @Test
+    void applicantsWithoutAScoreGetCardsForTheLowestScore() throws IOException {
+        CardCatalog catalog = catalog();
+
+        assertThat(catalog.recommend(null, 0, null, 3)).extracting(CreditCard::getName).containsExactly("Starter");
+    }
+
+    private CardCatalog catalog() throws IOException {
+        Path file = Files.writeString(dir.resolve("cards.json"), """
+            [
+              {"name": "Starter", "type": "Secured", "annual_fee": 0, "apr": 25.0, "credit_score_required": 300},
+              {"name": "Everyday", "type": "Cash Back", "annual_fee": 0, "apr": 20.0, "credit_score_required": 640},
+              {"name": "Premium", "type": "Travel", "annual_fee": 450, "apr": 19.0, "credit_score_required": 740}
+            ]
+            """);
+        return new CardCatalog(file.toString());
+    }
+}
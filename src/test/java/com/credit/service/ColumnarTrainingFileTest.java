@@ -0,0 +1,69 @@
+package com.credit.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarTrainingFileTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsRows() throws IOException {
+        Path file = write(dir.resolve("rows.ctd"), 0, 1, 2);
+
+        ColumnarTrainingFile source = ColumnarTrainingFile.open(file);
+        double[][] columns = new double[TrainingDataSource.NUM_FEATURES][3];
+        int[] labels = new int[3];
+        source.read(0, 3, columns, labels);
+
+        assertThat(source.size()).isEqualTo(3);
+        assertThat(labels).containsExactly(0, 1, 2);
+        assertThat(columns[2]).containsExactly(2.0, 12.0, 22.0);
+    }
+
+    @Test
+    void writerRejectsUnknownClasses() throws IOException {
+        try (ColumnarTrainingFile.Writer writer = ColumnarTrainingFile.writer(dir.resolve("bad.ctd"))) {
+            assertThatThrownBy(() -> writer.append(new double[TrainingDataSource.NUM_FEATURES], 3))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> writer.append(new double[TrainingDataSource.NUM_FEATURES], -1))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void readRejectsUnknownClasses() throws IOException {
+        Path file = write(dir.resolve("corrupt.ctd"), 0, 1, 2);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{5}), ColumnarTrainingFile.labelOffset(3) + 1);
+        }
+
+        ColumnarTrainingFile source = ColumnarTrainingFile.open(file);
+        assertThatThrownBy(() -> source.read(0, 3, new double[TrainingDataSource.NUM_FEATURES][3], new int[3]))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("row 1");
+    }
+
+    private static Path write(Path file, int... labels) throws IOException {
+        try (ColumnarTrainingFile.Writer writer = ColumnarTrainingFile.writer(file)) {
+            for (int row = 0; row < labels.length; row++) {
+                double[] features = new double[TrainingDataSource.NUM_FEATURES];
+                for (int j = 0; j < features.length; j++) {
+                    features[j] = row * 10 + j;
+                }
+                writer.append(features, labels[row]);
+            }
+            writer.finish();
+        }
+        return file;
+    }
+}
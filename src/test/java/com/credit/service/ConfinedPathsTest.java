@@ -0,0 +1,44 @@
+package com.credit.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConfinedPathsTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void resolvesRelativeAndAbsolutePathsInsideTheDirectory() {
+        Path root = dir.resolve("data");
+
+        assertThat(ConfinedPaths.resolve(root, "history.ctd")).isEqualTo(root.resolve("history.ctd"));
+        assertThat(ConfinedPaths.resolve(root, "2024/../history.ctd")).isEqualTo(root.resolve("history.ctd"));
+        assertThat(ConfinedPaths.resolve(root, root.resolve("a/b.ctd").toString())).isEqualTo(root.resolve("a/b.ctd"));
+    }
+
+    @Test
+    void rejectsPathsOutsideTheDirectory() {
+        Path root = dir.resolve("data");
+
+        assertThatThrownBy(() -> ConfinedPaths.resolve(root, "../secret")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ConfinedPaths.resolve(root, "/etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ConfinedPaths.resolve(root, ".")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ConfinedPaths.resolve(root, " ")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsSymbolicLinksLeadingOutside() throws IOException {
+        Path root = Files.createDirectories(dir.resolve("data"));
+        Path outside = Files.writeString(dir.resolve("outside.ctd"), "x");
+        Files.createSymbolicLink(root.resolve("link.ctd"), outside);
+
+        assertThatThrownBy(() -> ConfinedPaths.resolve(root, "link.ctd")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
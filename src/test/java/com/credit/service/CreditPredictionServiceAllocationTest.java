@@ -0,0 +1,68 @@
+package com.credit.service;
+
+import com.credit.model.CreditData;
+import com.credit.model.PredictionResult;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Guards the allocation-free single prediction path: once warmed up, scoring into a
+ * caller-owned {@link PredictionResult} must not allocate on the calling thread.
+ */
+class CreditPredictionServiceAllocationTest {
+    private static final int WARMUP_CALLS = 200_000;
+    private static final int MEASURED_CALLS = 100_000;
+
+    @TempDir
+    Path modelDir;
+
+    @ParameterizedTest(name = "compiled scoring {0}")
+    @ValueSource(booleans = {true, false})
+    void singlePredictionDoesNotAllocate(boolean compiledScoring) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "per-thread allocation counting unsupported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        CreditPredictionService service = new CreditPredictionService(
+            modelDir.resolve("credit_predictor.model").toString(), PredictionMetrics.noop(), compiledScoring);
+        CreditData applicant = applicant();
+        PredictionResult result = new PredictionResult();
+
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            checksum += service.predictEligibility(applicant, result).getPredictedClass() + 1;
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            checksum += service.predictEligibility(applicant, result).getPredictedClass() + 1;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(checksum).isPositive();
+        assertThat((double) allocated / MEASURED_CALLS)
+            .as("bytes allocated per prediction (%d in total)", allocated)
+            .isLessThan(1.0);
+    }
+
+    private static CreditData applicant() {
+        CreditData data = new CreditData();
+        data.setAgeOfCredit(7.5);
+        data.setDerogatoryMarks(0);
+        data.setFicoScore(720);
+        data.setMissedPayments(1);
+        data.setCreditInquiries(2);
+        data.setTotalAccounts(12);
+        data.setCreditLimit(15_000.0);
+        data.setIncome(85_000.0);
+        return data;
+    }
+}
@@ -0,0 +1,111 @@
+package com.credit.service;
+
+import com.credit.model.PredictionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DriftMonitorTest {
+    @TempDir
+    Path dir;
+
+    private CreditPredictionService predictionService;
+    private DriftMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        predictionService = new CreditPredictionService(dir.resolve("credit_predictor.model").toString());
+        monitor = new DriftMonitor(predictionService, new SimpleMeterRegistry(), true, Duration.ofMillis(20),
+            Duration.ofHours(1), 1);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        monitor.shutdown();
+        predictionService.shutdown();
+    }
+
+    @Test
+    void onlineUpdatesKeepTheWindowAndRetrainingRestartsIt() throws InterruptedException {
+        FeatureDistribution training = uniform(0.0);
+        predictionService.activate(snapshot(0.5, training));
+        for (int i = 0; i < 5; i++) {
+            predictionService.predictEligibility(ModelRegistryTest.applicant(), new PredictionResult());
+        }
+        awaitReport(report -> report.samples() == 5);
+
+        // New weights, same training data: what an online update publishes
+        ModelSnapshot updated = snapshot(0.7, training);
+        predictionService.activate(updated);
+        DriftMonitor.Report report = awaitReport(r -> r.modelVersion() == updated.getVersion());
+        assertThat(report.samples()).isEqualTo(5);
+        assertThat(report.referenceAvailable()).isTrue();
+
+        ModelSnapshot retrained = snapshot(0.7, uniform(1.0));
+        predictionService.activate(retrained);
+        assertThat(monitor.getReport().modelVersion()).isEqualTo(retrained.getVersion());
+        assertThat(monitor.getReport().samples()).isZero();
+    }
+
+    @Test
+    void cacheHitsAreRecorded() throws InterruptedException {
+        PredictionCache cache = new PredictionCache(predictionService, new GPTService("test-key"), true, 100,
+            Duration.ofMinutes(10));
+
+        for (int i = 0; i < 3; i++) {
+            cache.predict(ModelRegistryTest.applicant(), new PredictionResult());
+        }
+
+        assertThat(cache.getStats()).containsEntry("hits", 2L);
+        assertThat(awaitReport(report -> report.samples() == 3).features().get(2).liveMean()).isEqualTo(720.0);
+    }
+
+    @Test
+    void classOnlyPredictionsAreRecorded() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            predictionService.predictClass(ModelRegistryTest.applicant());
+        }
+
+        assertThat(awaitReport(report -> report.samples() == 4).features().get(2).liveMean()).isEqualTo(720.0);
+    }
+
+    private DriftMonitor.Report awaitReport(Predicate<DriftMonitor.Report> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.test(monitor.getReport()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        DriftMonitor.Report report = monitor.getReport();
+        assertThat(condition).accepts(report);
+        return report;
+    }
+
+    private ModelSnapshot snapshot(double weight, FeatureDistribution distribution) {
+        double[][] weights = new double[PredictionResult.NUM_CLASSES][TrainingDataSource.NUM_FEATURES + 1];
+        weights[1][3] = weight;
+        double[] stds = new double[TrainingDataSource.NUM_FEATURES];
+        Arrays.fill(stds, 1.0);
+        return new ModelSnapshot(predictionService.nextVersion(), weights, new double[TrainingDataSource.NUM_FEATURES],
+            stds, null, 0, Double.NaN, distribution);
+    }
+
+    private static FeatureDistribution uniform(double center) {
+        double[] centers = new double[FeatureDistribution.NUM_FEATURES];
+        Arrays.fill(centers, center);
+        double[] scales = new double[FeatureDistribution.NUM_FEATURES];
+        Arrays.fill(scales, 1.0);
+        double[][] fractions = new double[FeatureDistribution.NUM_FEATURES][FeatureDistribution.BUCKETS];
+        for (double[] row : fractions) {
+            Arrays.fill(row, 1.0 / FeatureDistribution.BUCKETS);
+        }
+        return new FeatureDistribution(centers, scales, fractions);
+    }
+}
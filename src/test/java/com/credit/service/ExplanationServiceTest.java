@@ -0,0 +1,104 @@
+package com.credit.service;
+
+import com.credit.model.CreditData;
+import com.credit.model.PredictionResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExplanationServiceTest {
+    private final ScriptedClient client = new ScriptedClient();
+    private ExplanationService service;
+    private int explained;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void usesTheLlmAnswerWhenItResponds() throws Exception {
+        service = service(5, Duration.ofMinutes(1));
+        client.answers.add("Solid history.");
+
+        ExplanationService.Explanation explanation = explain();
+
+        assertThat(explanation.getStatus()).isEqualTo(ExplanationService.Status.COMPLETED);
+        assertThat(explanation.getText()).isEqualTo("Solid history.");
+    }
+
+    @Test
+    void fallsBackToTheTemplateWhileTheCircuitIsOpen() throws Exception {
+        service = service(1, Duration.ofMinutes(1));
+        client.answers.add(new IOException("HTTP 500"));
+
+        assertThat(explain().getFallbackReason()).isEqualTo("error");
+        ExplanationService.Explanation refused = explain();
+
+        assertThat(refused.getStatus()).isEqualTo(ExplanationService.Status.FALLBACK);
+        assertThat(refused.getFallbackReason()).isEqualTo("circuit_open");
+        assertThat(refused.getText()).contains("Credit Profile Analysis");
+        assertThat(client.calls).isEqualTo(1);
+    }
+
+    @Test
+    void interruptedProbeDoesNotLeaveTheCircuitStuck() throws Exception {
+        service = service(1, Duration.ZERO);
+        client.answers.add(new IOException("HTTP 500"));
+        client.answers.add(new InterruptedException());
+        client.answers.add("Recovered.");
+
+        assertThat(explain().getFallbackReason()).isEqualTo("error");
+        assertThat(explain().getFallbackReason()).isEqualTo("interrupted");
+        ExplanationService.Explanation recovered = explain();
+
+        assertThat(recovered.getStatus()).isEqualTo(ExplanationService.Status.COMPLETED);
+        assertThat(recovered.getText()).isEqualTo("Recovered.");
+    }
+
+    private ExplanationService service(int failureThreshold, Duration openDuration) {
+        return new ExplanationService(client, new GPTService("test-key"), new ObjectMapper(), true, 1, 16, 100,
+            false, failureThreshold, openDuration);
+    }
+
+    // Each call scores a different applicant, so no call joins an earlier one
+    private ExplanationService.Explanation explain() throws Exception {
+        CreditData applicant = ModelRegistryTest.applicant();
+        applicant.setFicoScore(600 + ++explained);
+        return service.submit(applicant, new PredictionResult(), null).completion().get(5, TimeUnit.SECONDS);
+    }
+
+    // Answers calls in order with a text or by throwing
+    private static final class ScriptedClient extends ChatCompletionClient {
+        final Deque<Object> answers = new ArrayDeque<>();
+        int calls;
+
+        ScriptedClient() {
+            super(new ObjectMapper(), "http://localhost:1", "test-key", "test-model", 100, Duration.ofSeconds(1));
+        }
+
+        @Override
+        public synchronized String complete(String systemPrompt, String userPrompt)
+                throws IOException, InterruptedException {
+            calls++;
+            Object answer = answers.poll();
+            if (answer instanceof IOException e) {
+                throw e;
+            }
+            if (answer instanceof InterruptedException e) {
+                throw e;
+            }
+            return (String) answer;
+        }
+    }
+}
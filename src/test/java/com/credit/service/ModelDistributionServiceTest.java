@@ -0,0 +1,121 @@
+package com.credit.service;
+
+import com.credit.model.PredictionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelDistributionServiceTest {
+    @TempDir
+    Path dir;
+
+    private final List<CreditPredictionService> predictionServices = new ArrayList<>();
+    private final List<ModelDistributionService> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (ModelDistributionService node : nodes) {
+            node.shutdown();
+        }
+        for (CreditPredictionService predictionService : predictionServices) {
+            predictionService.shutdown();
+        }
+    }
+
+    @Test
+    void publisherWritesActivatedModelsWithGrowingVersions() throws Exception {
+        CreditPredictionService predictionService = predictionService("publisher");
+        node(predictionService, "publish");
+        Path shared = dir.resolve("shared/credit_predictor.model");
+        ModelSnapshot original = predictionService.getModelSnapshot();
+        assertThat(ModelFile.read(shared).getVersion()).isEqualTo(original.getVersion());
+
+        ModelSnapshot next = snapshot(predictionService, 0.5);
+        predictionService.activate(next);
+        assertThat(ModelFile.read(shared).getVersion()).isEqualTo(next.getVersion());
+
+        // A rollback reaches followers as a newer version carrying the older weights
+        predictionService.activate(original);
+        ModelSnapshot rolledBack = ModelFile.read(shared);
+        assertThat(rolledBack.getVersion()).isGreaterThan(next.getVersion());
+        assertThat(rolledBack.weights()).isDeepEqualTo(original.weights());
+    }
+
+    @Test
+    void followerLoadsNewerModelsOnly() throws Exception {
+        CreditPredictionService predictionService = predictionService("follower");
+        ModelDistributionService node = node(predictionService, "follow");
+        Path shared = dir.resolve("shared/credit_predictor.model");
+
+        ModelSnapshot newer = snapshot(predictionService, 0.5).withVersion(10);
+        ModelFile.write(newer, shared);
+        // The model is swapped in before the load is counted
+        await(() -> (long) node.getStats().get("loaded") == 1L);
+        assertThat(node.getStats()).containsEntry("servingVersion", 10L).containsEntry("servingShared", true);
+
+        ModelFile.write(snapshot(predictionService, 0.7).withVersion(9), shared);
+        await(() -> (long) node.getStats().get("rejected") == 1L);
+        assertThat(predictionService.getModelSnapshot().getVersion()).isEqualTo(10);
+    }
+
+    @Test
+    void followerSkipsFilesFailingTheirChecksum() throws Exception {
+        CreditPredictionService predictionService = predictionService("follower");
+        ModelDistributionService node = node(predictionService, "follow");
+        Path shared = dir.resolve("shared/credit_predictor.model");
+        long serving = predictionService.getModelSnapshot().getVersion();
+
+        Path staged = dir.resolve("staged.model");
+        ModelFile.write(snapshot(predictionService, 0.5).withVersion(10), staged);
+        byte[] bytes = Files.readAllBytes(staged);
+        bytes[bytes.length / 2] ^= 0x55; // inside the weights; header and trailer stay intact
+        Files.move(Files.write(staged, bytes), shared, StandardCopyOption.ATOMIC_MOVE);
+
+        await(() -> String.valueOf(node.getStats().get("lastError")).contains("CRC32"));
+        assertThat(node.getStats()).containsEntry("failed", 1L).containsEntry("loaded", 0L);
+        assertThat(predictionService.getModelSnapshot().getVersion()).isEqualTo(serving);
+    }
+
+    private CreditPredictionService predictionService(String name) {
+        CreditPredictionService predictionService =
+            new CreditPredictionService(dir.resolve(name).resolve("credit_predictor.model").toString());
+        predictionServices.add(predictionService);
+        return predictionService;
+    }
+
+    private ModelDistributionService node(CreditPredictionService predictionService, String mode) {
+        ModelDistributionService node = new ModelDistributionService(predictionService, new SimpleMeterRegistry(),
+            mode, dir.resolve("shared").toString(), "credit_predictor.model", Duration.ofMillis(20), mode);
+        nodes.add(node);
+        return node;
+    }
+
+    private static ModelSnapshot snapshot(CreditPredictionService predictionService, double weight) {
+        double[][] weights = new double[PredictionResult.NUM_CLASSES][TrainingDataSource.NUM_FEATURES + 1];
+        weights[1][3] = weight;
+        double[] stds = new double[TrainingDataSource.NUM_FEATURES];
+        Arrays.fill(stds, 1.0);
+        return new ModelSnapshot(predictionService.nextVersion(), weights, new double[TrainingDataSource.NUM_FEATURES],
+            stds, null, 0, Double.NaN);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
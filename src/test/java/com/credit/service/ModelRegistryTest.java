@@ -0,0 +1,223 @@
+package com.credit.service;
+
+import com.credit.model.CreditData;
+import com.credit.model.PredictionResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class ModelRegistryTest {
+    @TempDir
+    Path dir;
+
+    private CreditPredictionService predictionService;
+    private PredictionCache predictionCache;
+    private ModelRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        predictionService = new CreditPredictionService(dir.resolve("models/credit_predictor.model").toString());
+        predictionCache = new PredictionCache(predictionService, new GPTService("test-key"), true, 100,
+            Duration.ofMinutes(10));
+        registry = new ModelRegistry(predictionService, predictionCache, PredictionMetrics.noop(), 1, 16,
+            dir.resolve("models").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        registry.shutdown();
+        predictionService.shutdown();
+    }
+
+    @Test
+    void promotesAndRollsBack() {
+        ModelSnapshot original = predictionService.getModelSnapshot();
+        ModelSnapshot candidate = snapshot(0.5);
+        registry.register("candidate", candidate);
+
+        registry.promote("candidate");
+        assertThat(predictionService.getModelSnapshot()).isSameAs(candidate);
+        assertThat(registry.getHistory()).containsExactly(original.getVersion());
+
+        assertThat(registry.rollback()).isSameAs(original);
+        assertThat(predictionService.getModelSnapshot()).isSameAs(original);
+        assertThat(registry.getHistory()).isEmpty();
+    }
+
+    @Test
+    void activatedModelIsSavedInTheBackground() throws Exception {
+        ModelSnapshot candidate = snapshot(0.5);
+        registry.register("candidate", candidate);
+        registry.promote("candidate");
+        predictionService.shutdown();
+
+        assertThat(ModelFile.read(predictionService.getModelPath()).getVersion()).isEqualTo(candidate.getVersion());
+    }
+
+    @Test
+    void activationSucceedsWhenTheModelCannotBeSaved() throws Exception {
+        // The model's directory is taken by a file, so every save fails
+        Path blocked = Files.writeString(dir.resolve("blocked"), "");
+        CreditPredictionService unsaved = new CreditPredictionService(blocked.resolve("model").toString());
+        ModelSnapshot next = snapshot(0.5);
+
+        unsaved.activate(next);
+        unsaved.shutdown();
+
+        assertThat(unsaved.getModelSnapshot()).isSameAs(next);
+    }
+
+    @Test
+    void keepsUserRegisteredModelsNamedLikeVersions() {
+        ModelSnapshot original = predictionService.getModelSnapshot();
+        ModelSnapshot saved = snapshot(0.5);
+        registry.register("v" + saved.getVersion(), saved);
+
+        registry.promote("v" + saved.getVersion());
+        for (int i = 0; i <= 10; i++) {
+            predictionService.activate(snapshot(0.7));
+        }
+
+        assertThat(registry.getModels())
+            .containsEntry("v" + saved.getVersion(), saved)
+            .doesNotContainKey("v" + original.getVersion());
+    }
+
+    @Test
+    void concurrentActivationsReachListenersInOrder() throws Exception {
+        List<ModelSnapshot[]> changes = Collections.synchronizedList(new ArrayList<>());
+        predictionService.addModelChangeListener(
+            (previous, current) -> changes.add(new ModelSnapshot[] {previous, current}));
+        ModelSnapshot original = predictionService.getModelSnapshot();
+
+        runConcurrently(4, 200, (thread, i) -> predictionService.activate(snapshot(0.5)));
+
+        assertThat(changes).hasSize(800);
+        ModelSnapshot expected = original;
+        for (ModelSnapshot[] change : changes) {
+            assertThat(change[0]).isSameAs(expected);
+            expected = change[1];
+        }
+        assertThat(predictionService.getModelSnapshot()).isSameAs(expected);
+        predictionService.shutdown();
+        assertThat(ModelFile.read(predictionService.getModelPath()).getVersion()).isEqualTo(expected.getVersion());
+    }
+
+    @Test
+    void promotionsRollbacksAndActivationsDoNotDeadlock() {
+        registry.register("candidate", snapshot(0.5));
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> runConcurrently(3, 200, (thread, i) -> {
+            switch (thread) {
+                case 0 -> registry.promote("candidate");
+                case 1 -> {
+                    try {
+                        registry.rollback();
+                    } catch (NoSuchElementException e) {
+                        // Nothing left to roll back to
+                    }
+                }
+                default -> predictionService.activate(snapshot(0.7));
+            }
+        }));
+        assertThat(registry.getHistory()).hasSizeLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void shadowLatencyIsComparedOnCacheMissesOnly() throws InterruptedException {
+        registry.register("candidate", snapshot(0.5));
+        registry.setCandidate("candidate", 0, true);
+        CreditData applicant = applicant();
+
+        registry.predict(applicant, new PredictionResult());
+        registry.predict(applicant, new PredictionResult());
+
+        ModelComparison comparison = registry.getComparison("candidate").orElseThrow();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (comparison.getComparisons() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(comparison.getComparisons()).isEqualTo(2);
+        assertThat(comparison.getLatencySamples()).isEqualTo(1);
+        assertThat(comparison.getMeanProductionNanos()).isPositive();
+    }
+
+    @Test
+    void registersModelFilesOnlyFromTheModelDirectory() throws Exception {
+        ModelSnapshot saved = snapshot(0.5);
+        ModelFile.write(saved, dir.resolve("models/other.model"));
+        ModelFile.write(saved, dir.resolve("outside.model"));
+
+        assertThat(registry.register("other", "other.model").getVersion()).isEqualTo(saved.getVersion());
+        assertThatThrownBy(() -> registry.register("outside", "../outside.model"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(registry.getModels()).containsKey("other").doesNotContainKey("outside");
+    }
+
+    private interface Step {
+        void run(int thread, int iteration) throws Exception;
+    }
+
+    private static void runConcurrently(int threads, int iterations, Step step) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        step.run(thread, i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ModelSnapshot snapshot(double weight) {
+        double[][] weights = new double[PredictionResult.NUM_CLASSES][TrainingDataSource.NUM_FEATURES + 1];
+        weights[1][3] = weight;
+        double[] stds = new double[TrainingDataSource.NUM_FEATURES];
+        Arrays.fill(stds, 1.0);
+        return new ModelSnapshot(predictionService.nextVersion(), weights, new double[TrainingDataSource.NUM_FEATURES],
+            stds, null, 0, Double.NaN);
+    }
+
+    static CreditData applicant() {
+        CreditData data = new CreditData();
+        data.setAgeOfCredit(7.5);
+        data.setDerogatoryMarks(0);
+        data.setFicoScore(720);
+        data.setMissedPayments(1);
+        data.setCreditInquiries(2);
+        data.setTotalAccounts(12);
+        data.setCreditLimit(15_000.0);
+        data.setIncome(85_000.0);
+        return data;
+    }
+}
@@ -0,0 +1,99 @@
+package com.credit.service;
+
+import com.credit.model.CreditData;
+import com.credit.model.PredictionResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PredictionCacheTest {
+    @TempDir
+    Path dir;
+
+    private CreditPredictionService predictionService;
+    private PredictionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        predictionService = new CreditPredictionService(dir.resolve("credit_predictor.model").toString());
+        cache = new PredictionCache(predictionService, new GPTService("test-key"), true, 100, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        predictionService.shutdown();
+    }
+
+    @Test
+    void servesRepeatApplicantsFromTheCache() {
+        CreditData applicant = ModelRegistryTest.applicant();
+        PredictionResult scored = new PredictionResult();
+        PredictionResult cached = new PredictionResult();
+
+        assertThat(cache.score(applicant, scored)).isFalse();
+        assertThat(cache.score(applicant, cached)).isTrue();
+
+        assertThat(cached.getProbabilities()).containsExactly(scored.getProbabilities());
+        assertThat(cached.getModelVersion()).isEqualTo(scored.getModelVersion());
+        assertThat(cache.getStats()).containsEntry("hits", 1L).containsEntry("misses", 1L).containsEntry("size", 1L);
+    }
+
+    @Test
+    void bypassesApplicantsThatDoNotFitTheKey() {
+        CreditData applicant = ModelRegistryTest.applicant();
+        applicant.setIncome(85_000.001);
+
+        assertThat(cache.score(applicant, new PredictionResult())).isFalse();
+        assertThat(cache.score(applicant, new PredictionResult())).isFalse();
+        assertThat(cache.getStats()).containsEntry("bypassed", 2L).containsEntry("size", 0L);
+    }
+
+    @Test
+    void dropsEntriesWhenTheModelChanges() {
+        CreditData applicant = ModelRegistryTest.applicant();
+        cache.score(applicant, new PredictionResult());
+
+        ModelSnapshot current = predictionService.getModelSnapshot();
+        predictionService.activate(current.withVersion(predictionService.nextVersion()));
+
+        PredictionResult result = new PredictionResult();
+        assertThat(cache.score(applicant, result)).isFalse();
+        assertThat(result.getModelVersion()).isEqualTo(predictionService.getModelSnapshot().getVersion());
+        assertThat(cache.getStats()).containsEntry("invalidations", 1L);
+    }
+
+    @Test
+    void cacheHitsDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "per-thread allocation counting unsupported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        CreditData applicant = ModelRegistryTest.applicant();
+        PredictionResult result = new PredictionResult();
+        long hits = 0;
+        for (int i = 0; i < 200_000; i++) {
+            hits += cache.score(applicant, result) ? 1 : 0;
+        }
+
+        int calls = 100_000;
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < calls; i++) {
+            hits += cache.score(applicant, result) ? 1 : 0;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(hits).isEqualTo(300_000 - 1);
+        assertThat((double) allocated / calls)
+            .as("bytes allocated per cache hit (%d in total)", allocated)
+            .isLessThan(1.0);
+    }
+}